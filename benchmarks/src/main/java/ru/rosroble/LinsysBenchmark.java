@@ -0,0 +1,77 @@
+package ru.rosroble;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// время до сходимости решателя linsys на сгенерированных системах с диагональным преобладанием:
+// перестановка строк, нормализация (или LU-разложение) и итерации до точности eps.
+// запуск: mvn -f benchmarks/pom.xml package && java -jar benchmarks/target/benchmarks.jar Linsys -prof gc
+// (-prof gc добавляет скорость выделения памяти, gc.alloc.rate.norm - байты на операцию)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LinsysBenchmark {
+
+    @Param({"500", "2000"})
+    public int n;
+
+    @Param({"dense", "sparse"})
+    public String storage;
+
+    @Param({"jacobi", "jacobi-parallel", "seidel", "sor", "lu"})
+    public String path;
+
+    // запас диагонального преобладания; меньше - медленнее сходимость
+    @Param({"0.1"})
+    public double margin;
+
+    public double eps = 1e-10;
+
+    private LinearSystem original;
+    private LinearSystem work;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        original = storage.equals("dense") ?
+                SystemGenerator.dense(n, margin, 42) :
+                SystemGenerator.sparse(n, 8, margin, 42);
+    }
+
+    // решение изменяет матрицу, поэтому каждая операция получает свежую копию; копирование не измеряется
+    @Setup(Level.Invocation)
+    public void copy() {
+        work = SystemGenerator.copy(original);
+    }
+
+    static IterationMethod method(String name) {
+        switch (name) {
+            case "jacobi-parallel":
+                return new JacobiMethod(true);
+            case "seidel":
+                return new RelaxationMethod(1);
+            case "sor":
+                return new RelaxationMethod();
+            default:
+                return new JacobiMethod(false);
+        }
+    }
+
+    static double[] rhs(LinearSystem system) {
+        double[] b = new double[system.size()];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = system.rhs(i);
+        }
+        return b;
+    }
+
+    @Benchmark
+    public double[] solve() {
+        double[] b = rhs(work);
+        Engine engine = path.equals("lu") ? Engine.DIRECT : Engine.ITERATIVE;
+        return PreparedSystem.prepare(work, method(path), eps, engine).solve(b);
+    }
+}
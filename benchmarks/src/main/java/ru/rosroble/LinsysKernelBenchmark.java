@@ -0,0 +1,97 @@
+package ru.rosroble;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// отдельные шаги решателя linsys: одна итерация на подготовленной системе и поиск перестановки строк.
+// итерация не должна выделять память: при запуске с -prof gc gc.alloc.rate.norm для sweep близок к нулю
+// (кроме jacobi-parallel, где задачи ForkJoinPool создаются на каждой итерации)
+// плотные и разреженные системы измеряются в подклассах со своими наборами размеров:
+// плотная матрица 100000 x 100001 не помещается в память
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class LinsysKernelBenchmark {
+
+    @Param({"jacobi", "jacobi-parallel", "seidel", "sor"})
+    public String method;
+
+    private LinearSystem shuffled;
+    private LinearSystem normalized;
+    private IterationMethod iteration;
+    private double[] d;
+    private double[] current;
+    private double[] next;
+    private double[] error;
+
+    // случайная система с диагональным преобладанием и перемешанными строками
+    protected abstract LinearSystem system(int n);
+
+    protected abstract int size();
+
+    @Setup(Level.Trial)
+    public void generate() {
+        int n = size();
+        shuffled = system(n);
+        normalized = SystemGenerator.copy(shuffled);
+        iteration = LinsysBenchmark.method(method);
+        PreparedSystem prepared = PreparedSystem.prepare(normalized, iteration, 1e-10);
+        d = prepared.constants(LinsysBenchmark.rhs(shuffled));
+        current = d.clone();
+        next = new double[n];
+        error = new double[n];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public double sweep() {
+        double maxEps = iteration.sweep(normalized, d, current, next, error);
+        double[] tmp = current;
+        current = next;
+        next = tmp;
+        return maxEps;
+    }
+
+    // матрица не изменяется: diagDominance только вычисляет перестановку
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] matching() {
+        return new HopcroftKarp(shuffled).diagDominance();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Dense extends LinsysKernelBenchmark {
+        @Param({"2000", "5000"})
+        public int n;
+
+        @Override
+        protected LinearSystem system(int n) {
+            return SystemGenerator.dense(n, 0.1, 42);
+        }
+
+        @Override
+        protected int size() {
+            return n;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sparse extends LinsysKernelBenchmark {
+        @Param({"2000", "100000"})
+        public int n;
+
+        @Override
+        protected LinearSystem system(int n) {
+            return SystemGenerator.sparse(n, 8, 0.1, 42);
+        }
+
+        @Override
+        protected int size() {
+            return n;
+        }
+    }
+}
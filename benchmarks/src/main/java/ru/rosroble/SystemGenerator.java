@@ -0,0 +1,97 @@
+package ru.rosroble;
+
+import java.util.Random;
+
+// генератор систем с диагональным преобладанием для бенчмарков.
+// строки перемешиваются, чтобы поиск перестановки для преобладания выполнял реальную работу;
+// запас преобладания margin задает скорость сходимости итерационных методов (чем меньше, тем медленнее)
+public class SystemGenerator {
+
+    static DenseMatrix dense(int n, double margin, long seed) {
+        Random random = new Random(seed);
+        int[] shuffle = shuffle(n, random);
+        DenseMatrix matrix = new DenseMatrix(n);
+        for (int i = 0; i < n; i++) {
+            int row = shuffle[i];
+            double sum = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double value = random.nextDouble() * 2 - 1;
+                matrix.set(row, j, value);
+                sum += Math.abs(value);
+            }
+            matrix.set(row, i, (sum + 1e-9) * (1 + margin) * (random.nextBoolean() ? 1 : -1));
+            matrix.set(row, n, random.nextDouble() * 2 - 1);
+        }
+        return matrix;
+    }
+
+    // perRow ненулевых элементов вне диагонали в каждой строке
+    static SparseMatrix sparse(int n, int perRow, double margin, long seed) {
+        Random random = new Random(seed);
+        int[] shuffle = shuffle(n, random);
+        int nnz = n * (perRow + 1);
+        int[] rows = new int[nnz];
+        int[] cols = new int[nnz];
+        double[] vals = new double[nnz];
+        double[] rhs = new double[n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            int row = shuffle[i];
+            double sum = 0;
+            for (int p = 0; p < perRow; p++) {
+                // различные столбцы вне диагонали: смещения 1..perRow по модулю n
+                int j = (i + 1 + p * Math.max(1, (n - 1) / Math.max(1, perRow))) % n;
+                if (j == i) j = (j + 1) % n;
+                double value = random.nextDouble() * 2 - 1;
+                rows[k] = row;
+                cols[k] = j;
+                vals[k++] = value;
+                sum += Math.abs(value);
+            }
+            rows[k] = row;
+            cols[k] = i;
+            vals[k++] = (sum + 1e-9) * (1 + margin);
+            rhs[row] = random.nextDouble() * 2 - 1;
+        }
+        return SparseMatrix.fromCoordinates(n, rows, cols, vals, rhs);
+    }
+
+    static DenseMatrix copy(DenseMatrix matrix) {
+        DenseMatrix copy = new DenseMatrix(matrix.size());
+        System.arraycopy(matrix.data(), 0, copy.data(), 0, matrix.data().length);
+        return copy;
+    }
+
+    static SparseMatrix copy(SparseMatrix matrix) {
+        return new SparseMatrix(matrix.size(), matrix.rowPtr().clone(), matrix.colIdx().clone(),
+                matrix.values().clone(), matrix.rhs().clone());
+    }
+
+    static LinearSystem copy(LinearSystem system) {
+        if (system instanceof DenseMatrix) return copy((DenseMatrix) system);
+        return copy((SparseMatrix) system);
+    }
+
+    // плотная расширенная матрица в виде double[][] для LinearSystemSolver из eqsolver
+    public static double[][] denseArray(int n, double margin, long seed) {
+        DenseMatrix matrix = dense(n, margin, seed);
+        double[][] result = new double[n][n + 1];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix.data(), i * matrix.stride(), result[i], 0, n + 1);
+        }
+        return result;
+    }
+
+    private static int[] shuffle(int n, Random random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+}
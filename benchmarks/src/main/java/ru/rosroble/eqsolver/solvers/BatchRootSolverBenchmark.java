@@ -0,0 +1,89 @@
+package ru.rosroble.eqsolver.solvers;
+
+import org.openjdk.jmh.annotations.*;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// решение семейства кубических уравнений x^3 - 4.5x^2 - 9.21x - c = 0 с разными c на отрезке [-2, -1]:
+// по одному уравнению через HybridNewtonSolver (с созданием Result и с переиспользуемым MutableResult)
+// и пакетно через BatchRootSolver
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchRootSolverBenchmark {
+
+    @Param({"100000"})
+    public int n;
+
+    private double[] a3;
+    private double[] a2;
+    private double[] a1;
+    private double[] a0;
+    private double[] a;
+    private double[] b;
+    private double[] roots;
+    private ResultStatus[] status;
+    private BatchRootSolver batch;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        a3 = new double[n];
+        a2 = new double[n];
+        a1 = new double[n];
+        a0 = new double[n];
+        a = new double[n];
+        b = new double[n];
+        for (int i = 0; i < n; i++) {
+            a3[i] = 1;
+            a2[i] = -4.5;
+            a1[i] = -9.21;
+            a0[i] = -0.383 + random.nextDouble() - 0.5;
+            a[i] = -2;
+            b[i] = -1;
+        }
+        roots = new double[n];
+        status = new ResultStatus[n];
+        batch = new BatchRootSolver(1e-10);
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        HybridNewtonSolver solver = new HybridNewtonSolver(1e-10);
+        for (int i = 0; i < n; i++) {
+            double c3 = a3[i], c2 = a2[i], c1 = a1[i], c0 = a0[i];
+            DifferentiableFunction f = x -> x.pow(3).mul(c3).add(x.pow(2).mul(c2)).add(x.mul(c1)).add(c0);
+            Result result = solver.solve(f, a[i], b[i]);
+            roots[i] = result.getSolution()[0];
+        }
+        return roots;
+    }
+
+    @Benchmark
+    public double[] scalarMutable() {
+        HybridNewtonSolver solver = new HybridNewtonSolver(1e-10);
+        MutableResult out = new MutableResult();
+        for (int i = 0; i < n; i++) {
+            double c3 = a3[i], c2 = a2[i], c1 = a1[i], c0 = a0[i];
+            Function f = x -> ((c3 * x + c2) * x + c1) * x + c0;
+            solver.solve(f, a[i], b[i], out);
+            roots[i] = out.getSolution();
+        }
+        return roots;
+    }
+
+    @Benchmark
+    public double[] batch() {
+        batch.solve(new CubicFamily(a3, a2, a1, a0), a, b, roots, status, null);
+        return roots;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.rosroble.eqsolver.solvers;
+
+import org.openjdk.jmh.annotations.*;
+import ru.rosroble.SystemGenerator;
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+
+import java.util.concurrent.TimeUnit;
+
+// время до сходимости LinearSystemSolver из eqsolver на плотных системах с диагональным преобладанием;
+// размер 2 соответствует линейной задаче на каждом шаге метода Ньютона для систем из двух уравнений
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LinearSystemSolverBenchmark {
+
+    @Param({"2", "50", "500"})
+    public int n;
+
+    @Param({"0.1"})
+    public double margin;
+
+    private double[][] original;
+    private double[][] work;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        original = SystemGenerator.denseArray(n, margin, 42);
+    }
+
+    // solve() изменяет матрицу на месте
+    @Setup(Level.Invocation)
+    public void copy() {
+        work = new double[n][];
+        for (int i = 0; i < n; i++) {
+            work[i] = original[i].clone();
+        }
+    }
+
+    @Benchmark
+    public double[] solve() throws DivergenceException {
+        return new LinearSystemSolver(1e-10).solve(work);
+    }
+}
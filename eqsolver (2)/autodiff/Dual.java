@@ -0,0 +1,142 @@
+package ru.rosroble.eqsolver.autodiff;
+
+/**
+ * A second-order dual number: the truncated Taylor expansion v + d1 * e + d2 / 2 * e^2 of a value
+ * along one seeded variable. Evaluating a function on {@link #variable(double)} yields the function value
+ * and its exact first and second derivatives in a single pass (forward-mode automatic differentiation).
+ */
+public final class Dual {
+    private final double value;
+    private final double first;
+    private final double second;
+
+    public Dual(double value, double first, double second) {
+        this.value = value;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * @param x a constant
+     * @return a dual number with zero derivatives
+     */
+    public static Dual constant(double x) {
+        return new Dual(x, 0, 0);
+    }
+
+    /**
+     * @param x a point
+     * @return the independent variable seeded at x (first derivative 1)
+     */
+    public static Dual variable(double x) {
+        return new Dual(x, 1, 0);
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public double derivative() {
+        return first;
+    }
+
+    public double secondDerivative() {
+        return second;
+    }
+
+    public Dual add(Dual o) {
+        return new Dual(value + o.value, first + o.first, second + o.second);
+    }
+
+    public Dual add(double c) {
+        return new Dual(value + c, first, second);
+    }
+
+    public Dual sub(Dual o) {
+        return new Dual(value - o.value, first - o.first, second - o.second);
+    }
+
+    public Dual sub(double c) {
+        return new Dual(value - c, first, second);
+    }
+
+    public Dual mul(Dual o) {
+        return new Dual(value * o.value,
+                first * o.value + value * o.first,
+                second * o.value + 2 * first * o.first + value * o.second);
+    }
+
+    public Dual mul(double c) {
+        return new Dual(value * c, first * c, second * c);
+    }
+
+    public Dual div(Dual o) {
+        return mul(o.reciprocal());
+    }
+
+    public Dual div(double c) {
+        return new Dual(value / c, first / c, second / c);
+    }
+
+    public Dual negate() {
+        return new Dual(-value, -first, -second);
+    }
+
+    public Dual reciprocal() {
+        double r = 1 / value;
+        return chain(r, -r * r, 2 * r * r * r);
+    }
+
+    public Dual pow(double p) {
+        if (p == 0) return constant(1);
+        if (p == 1) return this;
+        if (p == 2) return mul(this);
+        return chain(Math.pow(value, p), p * Math.pow(value, p - 1), p * (p - 1) * Math.pow(value, p - 2));
+    }
+
+    public Dual sqrt() {
+        double s = Math.sqrt(value);
+        return chain(s, 0.5 / s, -0.25 / (s * value));
+    }
+
+    public Dual exp() {
+        double e = Math.exp(value);
+        return chain(e, e, e);
+    }
+
+    public Dual log() {
+        return chain(Math.log(value), 1 / value, -1 / (value * value));
+    }
+
+    public Dual sin() {
+        double s = Math.sin(value);
+        return chain(s, Math.cos(value), -s);
+    }
+
+    public Dual cos() {
+        double c = Math.cos(value);
+        return chain(c, -Math.sin(value), -c);
+    }
+
+    public Dual tan() {
+        double t = Math.tan(value);
+        double sec2 = 1 + t * t;
+        return chain(t, sec2, 2 * t * sec2);
+    }
+
+    public Dual abs() {
+        return value < 0 ? negate() : this;
+    }
+
+    /**
+     * Applies a scalar function g to this number given g, g' and g'' at {@link #value()}.
+     */
+    private Dual chain(double g, double g1, double g2) {
+        return new Dual(g, g1 * first, g2 * first * first + g1 * second);
+    }
+
+    @Override
+    public String toString() {
+        return value + " + " + first + "e + " + second / 2 + "e^2";
+    }
+}
@@ -0,0 +1,58 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.interfaces.BinaryFunction;
+import ru.rosroble.eqsolver.interfaces.DifferentiableBinaryFunction;
+
+/**
+ * Remembers the values of an expensive function of two variables at the last {@code capacity} distinct points,
+ * compared by their exact bits. Safe for concurrent use.
+ * Use {@link #of} to keep a {@link DifferentiableBinaryFunction} differentiable.
+ */
+public class CachedBinaryFunction implements BinaryFunction {
+    private final BinaryFunction function;
+    private final EvaluationCache cache;
+
+    public CachedBinaryFunction(BinaryFunction function, int capacity) {
+        this.function = function;
+        this.cache = new EvaluationCache(function, capacity);
+    }
+
+    /**
+     * @return a {@link CachedDifferentiableBinaryFunction} if f is differentiable, otherwise a plain cached function
+     */
+    public static CachedBinaryFunction of(BinaryFunction f, int capacity) {
+        if (f instanceof DifferentiableBinaryFunction) {
+            return new CachedDifferentiableBinaryFunction((DifferentiableBinaryFunction) f, capacity);
+        }
+        return new CachedBinaryFunction(f, capacity);
+    }
+
+    @Override
+    public double calculate(double x, double y) {
+        return cache.calculate(x, y);
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Drops all remembered values and resets the counters.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return function + " (cache hits: " + getHits() + ", misses: " + getMisses() + ")";
+    }
+}
@@ -0,0 +1,75 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.interfaces.DifferentiableBinaryFunction;
+
+/**
+ * A {@link CachedBinaryFunction} that stays differentiable. When one argument is a constant, as in a partial
+ * derivative, the value and the first and second partial derivatives with respect to the other argument
+ * are remembered by the bits of the point and combined with its derivatives by the chain rule.
+ * Evaluations where both arguments carry derivatives need the mixed derivative and are passed to the function
+ * uncached. Hits and misses of all caches are counted together.
+ */
+public class CachedDifferentiableBinaryFunction extends CachedBinaryFunction implements DifferentiableBinaryFunction {
+    private final DifferentiableBinaryFunction function;
+    private final EvaluationCache byX;
+    private final EvaluationCache byY;
+
+    public CachedDifferentiableBinaryFunction(DifferentiableBinaryFunction function, int capacity) {
+        super(function, capacity);
+        this.function = function;
+        this.byX = new EvaluationCache((x, y, out) -> jet(function.calculate(Dual.variable(x), Dual.constant(y)), out),
+                3, capacity);
+        this.byY = new EvaluationCache((x, y, out) -> jet(function.calculate(Dual.constant(x), Dual.variable(y)), out),
+                3, capacity);
+    }
+
+    @Override
+    public Dual calculate(Dual x, Dual y) {
+        if (isConstant(y)) return chain(byX, x.value(), y.value(), x);
+        if (isConstant(x)) return chain(byY, x.value(), y.value(), y);
+        return function.calculate(x, y);
+    }
+
+    private static boolean isConstant(Dual x) {
+        return x.derivative() == 0 && x.secondDerivative() == 0;
+    }
+
+    private static void jet(Dual y, double[] out) {
+        out[0] = y.value();
+        out[1] = y.derivative();
+        out[2] = y.secondDerivative();
+    }
+
+    /**
+     * @param t the argument that carries derivatives
+     */
+    private static Dual chain(EvaluationCache cache, double x, double y, Dual t) {
+        double[] jet = new double[3];
+        cache.calculate(x, y, jet);
+        double d = t.derivative();
+        return new Dual(jet[0], jet[1] * d, jet[2] * d * d + jet[1] * t.secondDerivative());
+    }
+
+    @Override
+    public long getHits() {
+        return super.getHits() + byX.getHits() + byY.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return super.getMisses() + byX.getMisses() + byY.getMisses();
+    }
+
+    @Override
+    public int size() {
+        return super.size() + byX.size() + byY.size();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        byX.clear();
+        byY.clear();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+
+/**
+ * A {@link CachedFunction} that stays differentiable, so solvers keep using exact derivatives.
+ * Evaluations on dual numbers are cached too: f, f' and f'' are remembered by the bits of x.value()
+ * and combined with the derivatives of x by the chain rule, so any seed hits the same entry.
+ * Hits and misses of both caches are counted together.
+ */
+public class CachedDifferentiableFunction extends CachedFunction implements DifferentiableFunction {
+    private final EvaluationCache derivatives;
+
+    public CachedDifferentiableFunction(DifferentiableFunction function, int capacity) {
+        super(function, capacity);
+        this.derivatives = new EvaluationCache((x, unused, out) -> {
+            Dual y = function.calculate(Dual.variable(x));
+            out[0] = y.value();
+            out[1] = y.derivative();
+            out[2] = y.secondDerivative();
+        }, 3, capacity);
+    }
+
+    @Override
+    public Dual calculate(Dual x) {
+        double[] jet = new double[3];
+        derivatives.calculate(x.value(), 0, jet);
+        double d = x.derivative();
+        return new Dual(jet[0], jet[1] * d, jet[2] * d * d + jet[1] * x.secondDerivative());
+    }
+
+    @Override
+    public long getHits() {
+        return super.getHits() + derivatives.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return super.getMisses() + derivatives.getMisses();
+    }
+
+    @Override
+    public int size() {
+        return super.size() + derivatives.size();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        derivatives.clear();
+    }
+}
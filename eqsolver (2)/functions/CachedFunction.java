@@ -0,0 +1,59 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+import ru.rosroble.eqsolver.interfaces.Function;
+
+/**
+ * Remembers the values of an expensive function at the last {@code capacity} distinct points.
+ * Points are compared by their exact bits, so only repeated evaluations at the very same x are saved,
+ * e.g. f(a) in a bracket check and again in a starting point rule, or f(x) in a finite difference and a Newton step.
+ * Safe for concurrent use. Use {@link #of} to keep a {@link DifferentiableFunction} differentiable.
+ */
+public class CachedFunction implements Function {
+    private final Function function;
+    private final EvaluationCache cache;
+
+    public CachedFunction(Function function, int capacity) {
+        this.function = function;
+        this.cache = new EvaluationCache((x, unused) -> function.calculate(x), capacity);
+    }
+
+    /**
+     * @return a {@link CachedDifferentiableFunction} if f is differentiable, otherwise a plain cached function
+     */
+    public static CachedFunction of(Function f, int capacity) {
+        if (f instanceof DifferentiableFunction) {
+            return new CachedDifferentiableFunction((DifferentiableFunction) f, capacity);
+        }
+        return new CachedFunction(f, capacity);
+    }
+
+    @Override
+    public double calculate(double x) {
+        return cache.calculate(x, 0);
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Drops all remembered values and resets the counters.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return function + " (cache hits: " + getHits() + ", misses: " + getMisses() + ")";
+    }
+}
@@ -0,0 +1,200 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.interfaces.BinaryFunction;
+
+import java.util.Arrays;
+
+/**
+ * Bounded map from argument bits to function values with least-recently-used eviction.
+ * An entry holds {@code width} values of one point, e.g. a value with its derivatives.
+ * Entries live in parallel primitive arrays: hash chains and the LRU list are linked by indices,
+ * so lookups and insertions do not allocate. Access is synchronized, but the function itself is evaluated
+ * outside the lock, so concurrent misses on different points do not wait for each other.
+ */
+class EvaluationCache {
+    private static final int NONE = -1;
+    private final BinaryFunction function;
+    private final Values many;
+    private final int width;
+    private final int capacity;
+    private final long[] keyX;
+    private final long[] keyY;
+    private final double[] values;
+    // next entry in the same hash bucket
+    private final int[] chain;
+    // LRU list: head is the most recently used entry, tail the least
+    private final int[] newer;
+    private final int[] older;
+    private final int[] buckets;
+    private final int mask;
+    private int size;
+    private int head = NONE;
+    private int tail = NONE;
+    private long hits;
+    private long misses;
+
+    /**
+     * Computes all values of an entry at once.
+     */
+    interface Values {
+        void calculate(double x, double y, double[] out);
+    }
+
+    EvaluationCache(BinaryFunction function, int capacity) {
+        this(function, null, 1, capacity);
+    }
+
+    EvaluationCache(Values many, int width, int capacity) {
+        this(null, many, width, capacity);
+    }
+
+    private EvaluationCache(BinaryFunction function, Values many, int width, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Cache capacity should be at least 1");
+        this.function = function;
+        this.many = many;
+        this.width = width;
+        this.capacity = capacity;
+        keyX = new long[capacity];
+        keyY = new long[capacity];
+        values = new double[capacity * width];
+        chain = new int[capacity];
+        newer = new int[capacity];
+        older = new int[capacity];
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity - 1)) << 2;
+        buckets = new int[tableSize];
+        mask = tableSize - 1;
+        Arrays.fill(buckets, NONE);
+    }
+
+    /**
+     * @return f(x, y) from the cache or computed and stored
+     */
+    double calculate(double x, double y) {
+        long bx = Double.doubleToRawLongBits(x);
+        long by = Double.doubleToRawLongBits(y);
+        int bucket = bucket(bx, by);
+        synchronized (this) {
+            int entry = find(bucket, bx, by);
+            if (entry != NONE) {
+                hits++;
+                moveToHead(entry);
+                return values[entry];
+            }
+            misses++;
+        }
+        double value = function.calculate(x, y);
+        synchronized (this) {
+            if (find(bucket, bx, by) == NONE) values[insert(bucket, bx, by)] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Writes the {@code width} values at (x, y) into out, from the cache or computed and stored.
+     */
+    void calculate(double x, double y, double[] out) {
+        long bx = Double.doubleToRawLongBits(x);
+        long by = Double.doubleToRawLongBits(y);
+        int bucket = bucket(bx, by);
+        synchronized (this) {
+            int entry = find(bucket, bx, by);
+            if (entry != NONE) {
+                hits++;
+                moveToHead(entry);
+                System.arraycopy(values, entry * width, out, 0, width);
+                return;
+            }
+            misses++;
+        }
+        many.calculate(x, y, out);
+        synchronized (this) {
+            if (find(bucket, bx, by) == NONE) System.arraycopy(out, 0, values, insert(bucket, bx, by) * width, width);
+        }
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void clear() {
+        Arrays.fill(buckets, NONE);
+        size = 0;
+        head = NONE;
+        tail = NONE;
+        hits = 0;
+        misses = 0;
+    }
+
+    private int bucket(long bx, long by) {
+        long h = bx * 0x9E3779B97F4A7C15L + by * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        return (int) h & mask;
+    }
+
+    private int find(int bucket, long bx, long by) {
+        for (int entry = buckets[bucket]; entry != NONE; entry = chain[entry]) {
+            if (keyX[entry] == bx && keyY[entry] == by) return entry;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return the new entry; the caller writes its values
+     */
+    private int insert(int bucket, long bx, long by) {
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = tail;
+            unlinkBucket(entry);
+            unlinkList(entry);
+        }
+        keyX[entry] = bx;
+        keyY[entry] = by;
+        chain[entry] = buckets[bucket];
+        buckets[bucket] = entry;
+        linkHead(entry);
+        return entry;
+    }
+
+    private void unlinkBucket(int entry) {
+        int bucket = bucket(keyX[entry], keyY[entry]);
+        if (buckets[bucket] == entry) {
+            buckets[bucket] = chain[entry];
+            return;
+        }
+        int previous = buckets[bucket];
+        while (chain[previous] != entry) previous = chain[previous];
+        chain[previous] = chain[entry];
+    }
+
+    private void moveToHead(int entry) {
+        if (entry == head) return;
+        unlinkList(entry);
+        linkHead(entry);
+    }
+
+    private void unlinkList(int entry) {
+        if (newer[entry] != NONE) older[newer[entry]] = older[entry];
+        else head = older[entry];
+        if (older[entry] != NONE) newer[older[entry]] = newer[entry];
+        else tail = newer[entry];
+    }
+
+    private void linkHead(int entry) {
+        newer[entry] = NONE;
+        older[entry] = head;
+        if (head != NONE) newer[head] = entry;
+        head = entry;
+        if (tail == NONE) tail = entry;
+    }
+}
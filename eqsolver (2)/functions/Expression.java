@@ -0,0 +1,230 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.interfaces.DifferentiableBinaryFunction;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+
+/**
+ * A compiled arithmetic expression of x and y. The expression is stored as a flat postfix program
+ * (see {@link ExpressionParser}) which is translated to bytecode by {@link ExpressionCompiler};
+ * if that is not possible, the program is interpreted by a single loop over an int array with a value stack.
+ * Evaluation on {@link Dual} numbers interprets the same program and gives exact derivatives.
+ * Instances are immutable and can be evaluated from several threads.
+ */
+public class Expression implements DifferentiableFunction, DifferentiableBinaryFunction {
+    static final int CONST = 0;
+    static final int X = 1;
+    static final int Y = 2;
+    static final int ADD = 3;
+    static final int SUB = 4;
+    static final int MUL = 5;
+    static final int DIV = 6;
+    static final int POW = 7;
+    // power with an integer exponent stored in the next code cell
+    static final int POWI = 8;
+    static final int NEG = 9;
+    static final int SIN = 10;
+    static final int COS = 11;
+    static final int TAN = 12;
+    static final int EXP = 13;
+    static final int LOG = 14;
+    static final int SQRT = 15;
+    static final int ABS = 16;
+    private final String text;
+    private final int[] code;
+    private final double[] constants;
+    private final int depth;
+    private final boolean usesY;
+    // generated bytecode for the program, null if it could not be defined
+    private final ExpressionCompiler.Compiled compiled;
+
+    Expression(String text, int[] code, double[] constants, int depth, boolean usesY) {
+        this.text = text;
+        this.code = code;
+        this.constants = constants;
+        this.depth = depth;
+        this.usesY = usesY;
+        this.compiled = ExpressionCompiler.compile(code, constants);
+    }
+
+    /**
+     * @return true if the expression depends on y and therefore is a function of two variables
+     */
+    public boolean usesY() {
+        return usesY;
+    }
+
+    @Override
+    public double calculate(double x) {
+        if (usesY) throw new IllegalStateException("Expression depends on y: " + text);
+        return calculate(x, 0);
+    }
+
+    @Override
+    public double calculate(double x, double y) {
+        if (compiled != null) return compiled.calculate(x, y);
+        return interpret(x, y);
+    }
+
+    /**
+     * Runs the postfix program on a value stack.
+     */
+    double interpret(double x, double y) {
+        double[] stack = new double[depth];
+        int sp = 0;
+        int[] code = this.code;
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case CONST: stack[sp++] = constants[code[++pc]]; break;
+                case X: stack[sp++] = x; break;
+                case Y: stack[sp++] = y; break;
+                case ADD: sp--; stack[sp - 1] += stack[sp]; break;
+                case SUB: sp--; stack[sp - 1] -= stack[sp]; break;
+                case MUL: sp--; stack[sp - 1] *= stack[sp]; break;
+                case DIV: sp--; stack[sp - 1] /= stack[sp]; break;
+                case POW: sp--; stack[sp - 1] = Math.pow(stack[sp - 1], stack[sp]); break;
+                case POWI: stack[sp - 1] = powi(stack[sp - 1], code[++pc]); break;
+                case NEG: stack[sp - 1] = -stack[sp - 1]; break;
+                case SIN: stack[sp - 1] = Math.sin(stack[sp - 1]); break;
+                case COS: stack[sp - 1] = Math.cos(stack[sp - 1]); break;
+                case TAN: stack[sp - 1] = Math.tan(stack[sp - 1]); break;
+                case EXP: stack[sp - 1] = Math.exp(stack[sp - 1]); break;
+                case LOG: stack[sp - 1] = Math.log(stack[sp - 1]); break;
+                case SQRT: stack[sp - 1] = Math.sqrt(stack[sp - 1]); break;
+                case ABS: stack[sp - 1] = Math.abs(stack[sp - 1]); break;
+                default: throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+        return stack[0];
+    }
+
+    @Override
+    public Dual calculate(Dual x) {
+        if (usesY) throw new IllegalStateException("Expression depends on y: " + text);
+        return calculate(x, Dual.constant(0));
+    }
+
+    @Override
+    public Dual calculate(Dual x, Dual y) {
+        Dual[] stack = new Dual[depth];
+        int sp = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case CONST: stack[sp++] = Dual.constant(constants[code[++pc]]); break;
+                case X: stack[sp++] = x; break;
+                case Y: stack[sp++] = y; break;
+                case ADD: sp--; stack[sp - 1] = stack[sp - 1].add(stack[sp]); break;
+                case SUB: sp--; stack[sp - 1] = stack[sp - 1].sub(stack[sp]); break;
+                case MUL: sp--; stack[sp - 1] = stack[sp - 1].mul(stack[sp]); break;
+                case DIV: sp--; stack[sp - 1] = stack[sp - 1].div(stack[sp]); break;
+                case POW: sp--; stack[sp - 1] = pow(stack[sp - 1], stack[sp]); break;
+                case POWI: stack[sp - 1] = stack[sp - 1].pow(code[++pc]); break;
+                case NEG: stack[sp - 1] = stack[sp - 1].negate(); break;
+                case SIN: stack[sp - 1] = stack[sp - 1].sin(); break;
+                case COS: stack[sp - 1] = stack[sp - 1].cos(); break;
+                case TAN: stack[sp - 1] = stack[sp - 1].tan(); break;
+                case EXP: stack[sp - 1] = stack[sp - 1].exp(); break;
+                case LOG: stack[sp - 1] = stack[sp - 1].log(); break;
+                case SQRT: stack[sp - 1] = stack[sp - 1].sqrt(); break;
+                case ABS: stack[sp - 1] = stack[sp - 1].abs(); break;
+                default: throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * x^n by repeated squaring, cheaper than {@link Math#pow} for the small exponents of typical equations.
+     */
+    static double powi(double x, int n) {
+        if (n < 0) return 1 / powi(x, -n);
+        double result = 1;
+        while (n > 0) {
+            if ((n & 1) != 0) result *= x;
+            x *= x;
+            n >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Expands the expression into a polynomial of x.
+     * @return the polynomial, or null if the expression uses y, a function, division by a non-constant
+     * or a power with a non-constant, negative or fractional exponent
+     */
+    public Polynomial toPolynomial() {
+        if (usesY) return null;
+        double[][] stack = new double[depth][];
+        int sp = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case CONST: stack[sp++] = new double[] {constants[code[++pc]]}; break;
+                case X: stack[sp++] = new double[] {0, 1}; break;
+                case ADD: sp--; stack[sp - 1] = combine(stack[sp - 1], stack[sp], 1); break;
+                case SUB: sp--; stack[sp - 1] = combine(stack[sp - 1], stack[sp], -1); break;
+                case MUL: sp--; stack[sp - 1] = multiply(stack[sp - 1], stack[sp]); break;
+                case DIV:
+                    sp--;
+                    if (stack[sp].length != 1) return null;
+                    stack[sp - 1] = combine(new double[0], stack[sp - 1], 1 / stack[sp][0]);
+                    break;
+                case POW:
+                    sp--;
+                    double exponent = stack[sp].length == 1 ? stack[sp][0] : -1;
+                    if (exponent < 0 || exponent != Math.rint(exponent) || exponent > Integer.MAX_VALUE) return null;
+                    stack[sp - 1] = power(stack[sp - 1], (int) exponent);
+                    break;
+                case POWI:
+                    int n = code[++pc];
+                    if (n < 0) return null;
+                    stack[sp - 1] = power(stack[sp - 1], n);
+                    break;
+                case NEG: stack[sp - 1] = combine(new double[0], stack[sp - 1], -1); break;
+                default: return null;
+            }
+        }
+        return new Polynomial(stack[0]);
+    }
+
+    /**
+     * @return coefficients of p + factor * q
+     */
+    private static double[] combine(double[] p, double[] q, double factor) {
+        double[] r = new double[Math.max(p.length, q.length)];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = (i < p.length ? p[i] : 0) + (i < q.length ? factor * q[i] : 0);
+        }
+        return r;
+    }
+
+    private static double[] multiply(double[] p, double[] q) {
+        double[] r = new double[p.length + q.length - 1];
+        for (int i = 0; i < p.length; i++) {
+            for (int j = 0; j < q.length; j++) {
+                r[i + j] += p[i] * q[j];
+            }
+        }
+        return r;
+    }
+
+    private static double[] power(double[] p, int n) {
+        double[] r = {1};
+        for (int i = 0; i < n; i++) {
+            r = multiply(r, p);
+        }
+        return r;
+    }
+
+    /**
+     * u^v for dual numbers: a constant exponent uses the power rule, otherwise u^v = exp(v * ln u).
+     */
+    private static Dual pow(Dual u, Dual v) {
+        if (v.derivative() == 0 && v.secondDerivative() == 0) return u.pow(v.value());
+        return v.mul(u.log()).exp();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
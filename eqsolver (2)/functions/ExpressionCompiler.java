@@ -0,0 +1,233 @@
+package ru.rosroble.eqsolver.functions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Translates the postfix program of an {@link Expression} into JVM bytecode: every instruction maps to one or a few
+ * bytecodes of a method {@code double calculate(double x, double y)} of a hidden class, so after JIT compilation
+ * the expression runs like a hand-written lambda. The program is straight-line code, so no stack map frames are needed.
+ */
+class ExpressionCompiler {
+    private static final String MATH = "java/lang/Math";
+    private static final String EXPRESSION = "ru/rosroble/eqsolver/functions/Expression";
+    private static final String COMPILED = "ru/rosroble/eqsolver/functions/ExpressionCompiler$Compiled";
+    private static final String NAME = "ru/rosroble/eqsolver/functions/CompiledExpression";
+
+    /**
+     * Evaluator generated for one expression.
+     */
+    interface Compiled {
+        double calculate(double x, double y);
+    }
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int poolCount = 1;
+    // operand stack size in slots while the method is emitted; every double takes two
+    private int stack;
+    private int maxStack;
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * @return the generated evaluator or null if the JVM refuses to define it; the reason is reported to System.err
+     * and the caller then interprets the program
+     */
+    static Compiled compile(int[] code, double[] constants) {
+        try {
+            byte[] bytes = new ExpressionCompiler().classFile(code, constants);
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (Compiled) lookup.lookupClass().getDeclaredConstructor().newInstance();
+        } catch (IOException | ReflectiveOperationException | LinkageError e) {
+            System.err.println("Expression is interpreted, bytecode compilation failed: " + e);
+            return null;
+        }
+    }
+
+    private byte[] classFile(int[] code, double[] constants) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        int thisClass = classEntry(NAME);
+        int superClass = classEntry("java/lang/Object");
+        int compiled = classEntry(COMPILED);
+        // constructor: super()
+        int init = utf8("<init>");
+        int voidDescriptor = utf8("()V");
+        int objectInit = methodEntry("java/lang/Object", "<init>", "()V");
+        int codeAttribute = utf8("Code");
+        byte[] calculate = method(code, constants);
+        int calculateName = utf8("calculate");
+        int calculateDescriptor = utf8("(DD)D");
+
+        out.writeShort(0x0030); // ACC_FINAL | ACC_SUPER
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(compiled);
+        out.writeShort(0); // fields
+        out.writeShort(2); // methods
+        out.writeShort(0x0001); // ACC_PUBLIC
+        out.writeShort(init);
+        out.writeShort(voidDescriptor);
+        out.writeShort(1);
+        writeCode(out, codeAttribute, 1, 1, new byte[] {
+                0x2a, // aload_0
+                (byte) 0xb7, (byte) (objectInit >> 8), (byte) objectInit, // invokespecial Object.<init>
+                (byte) 0xb1 // return
+        });
+        out.writeShort(0x0001);
+        out.writeShort(calculateName);
+        out.writeShort(calculateDescriptor);
+        out.writeShort(1);
+        writeCode(out, codeAttribute, maxStack, 5, calculate);
+        out.writeShort(0); // class attributes
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(file);
+        header.writeInt(0xCAFEBABE);
+        header.writeShort(0);
+        header.writeShort(52);
+        header.writeShort(poolCount);
+        pool.flush();
+        poolBytes.writeTo(file);
+        body.writeTo(file);
+        return file.toByteArray();
+    }
+
+    private static void writeCode(DataOutputStream out, int codeAttribute, int maxStack, int maxLocals, byte[] code)
+            throws IOException {
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    private byte[] method(int[] code, double[] constants) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case Expression.CONST:
+                    int index = doubleEntry(constants[code[++pc]]);
+                    bytes.write(0x14); // ldc2_w
+                    bytes.write(index >> 8);
+                    bytes.write(index);
+                    push(2);
+                    break;
+                case Expression.X: bytes.write(0x27); push(2); break; // dload_1
+                case Expression.Y: bytes.write(0x29); push(2); break; // dload_3
+                case Expression.ADD: bytes.write(0x63); push(-2); break;
+                case Expression.SUB: bytes.write(0x67); push(-2); break;
+                case Expression.MUL: bytes.write(0x6b); push(-2); break;
+                case Expression.DIV: bytes.write(0x6f); push(-2); break;
+                case Expression.NEG: bytes.write(0x77); break;
+                case Expression.POW: invoke(bytes, MATH, "pow", "(DD)D"); push(-2); break;
+                case Expression.POWI: powi(bytes, code[++pc]); break;
+                case Expression.SIN: invoke(bytes, MATH, "sin", "(D)D"); break;
+                case Expression.COS: invoke(bytes, MATH, "cos", "(D)D"); break;
+                case Expression.TAN: invoke(bytes, MATH, "tan", "(D)D"); break;
+                case Expression.EXP: invoke(bytes, MATH, "exp", "(D)D"); break;
+                case Expression.LOG: invoke(bytes, MATH, "log", "(D)D"); break;
+                case Expression.SQRT: invoke(bytes, MATH, "sqrt", "(D)D"); break;
+                case Expression.ABS: invoke(bytes, MATH, "abs", "(D)D"); break;
+                default: throw new IllegalStateException("Unknown instruction " + code[pc]);
+            }
+        }
+        bytes.write(0xaf); // dreturn
+        return bytes.toByteArray();
+    }
+
+    // squares and cubes are multiplied in place, other powers call Expression.powi
+    private void powi(ByteArrayOutputStream bytes, int n) throws IOException {
+        if (n == 2) {
+            bytes.write(0x5c); // dup2
+            push(2);
+            bytes.write(0x6b);
+            push(-2);
+        } else if (n == 3) {
+            bytes.write(0x5c);
+            bytes.write(0x5c);
+            push(4);
+            bytes.write(0x6b);
+            bytes.write(0x6b);
+            push(-4);
+        } else {
+            bytes.write(0x10); // bipush
+            bytes.write(n);
+            push(1);
+            invoke(bytes, EXPRESSION, "powi", "(DI)D");
+            push(-1);
+        }
+    }
+
+    private void push(int slots) {
+        stack += slots;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void invoke(ByteArrayOutputStream bytes, String owner, String name, String descriptor) throws IOException {
+        int index = methodEntry(owner, name, descriptor);
+        bytes.write(0xb8); // invokestatic
+        bytes.write(index >> 8);
+        bytes.write(index);
+    }
+
+    private int utf8(String value) throws IOException {
+        Integer index = entries.get("U" + value);
+        if (index != null) return index;
+        pool.writeByte(1);
+        pool.writeUTF(value);
+        entries.put("U" + value, poolCount);
+        return poolCount++;
+    }
+
+    private int classEntry(String name) throws IOException {
+        Integer index = entries.get("C" + name);
+        if (index != null) return index;
+        int nameIndex = utf8(name);
+        pool.writeByte(7);
+        pool.writeShort(nameIndex);
+        entries.put("C" + name, poolCount);
+        return poolCount++;
+    }
+
+    private int methodEntry(String owner, String name, String descriptor) throws IOException {
+        String key = "M" + owner + "." + name + descriptor;
+        Integer index = entries.get(key);
+        if (index != null) return index;
+        int ownerIndex = classEntry(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        pool.writeByte(12);
+        pool.writeShort(nameIndex);
+        pool.writeShort(descriptorIndex);
+        int nameAndType = poolCount++;
+        pool.writeByte(10);
+        pool.writeShort(ownerIndex);
+        pool.writeShort(nameAndType);
+        entries.put(key, poolCount);
+        return poolCount++;
+    }
+
+    private int doubleEntry(double value) throws IOException {
+        String key = "D" + Double.doubleToRawLongBits(value);
+        Integer index = entries.get(key);
+        if (index != null) return index;
+        pool.writeByte(6);
+        pool.writeDouble(value);
+        entries.put(key, poolCount);
+        // a double takes two constant pool slots
+        poolCount += 2;
+        return poolCount - 2;
+    }
+}
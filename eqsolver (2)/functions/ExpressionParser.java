@@ -0,0 +1,287 @@
+package ru.rosroble.eqsolver.functions;
+
+import java.util.Arrays;
+
+/**
+ * Recursive descent parser compiling an arithmetic expression of x and y into a postfix program for {@link Expression}.
+ * Supported: numbers (also in 1e-3 form), variables x and y, constants pi and e, binary + - * / ^
+ * (^ is right-associative and binds tighter than unary minus, so -x^2 = -(x^2)), implicit multiplication (4.5x^2),
+ * parentheses and functions sin, cos, tan, exp, ln (or log), sqrt, abs.
+ * Subexpressions without variables are folded into constants and integer powers become repeated multiplication.
+ */
+public class ExpressionParser {
+    private final String text;
+    private int pos;
+    private int[] code = new int[16];
+    private int length;
+    // start of every emitted instruction, used to look at the last instructions when folding constants
+    private int[] starts = new int[16];
+    private int count;
+    private double[] constants = new double[8];
+    private int constantCount;
+    private boolean usesY;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @param text an expression, e.g. "x^3 - 4.5x^2 - 9.21x - 0.383"
+     * @return the compiled expression
+     * @throws IllegalArgumentException if the text is not a valid expression
+     */
+    public static Expression parse(String text) {
+        ExpressionParser parser = new ExpressionParser(text);
+        parser.expression();
+        parser.skipSpaces();
+        if (parser.pos < text.length()) throw parser.error("Unexpected '" + text.charAt(parser.pos) + "'");
+        int[] code = Arrays.copyOf(parser.code, parser.length);
+        return new Expression(text.trim(), code, Arrays.copyOf(parser.constants, parser.constantCount),
+                depth(code), parser.usesY);
+    }
+
+    // expression := term (('+' | '-') term)*
+    private void expression() {
+        term();
+        while (true) {
+            if (accept('+')) {
+                term();
+                binary(Expression.ADD);
+            } else if (accept('-')) {
+                term();
+                binary(Expression.SUB);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // term := unary (('*' | '/') unary | unary)*, the last form being implicit multiplication
+    private void term() {
+        unary();
+        while (true) {
+            if (accept('*')) {
+                unary();
+                binary(Expression.MUL);
+            } else if (accept('/')) {
+                unary();
+                binary(Expression.DIV);
+            } else if (startsPrimary()) {
+                unary();
+                binary(Expression.MUL);
+            } else {
+                return;
+            }
+        }
+    }
+
+    // unary := ('-' | '+') unary | power
+    private void unary() {
+        if (accept('-')) {
+            unary();
+            unary(Expression.NEG);
+        } else if (accept('+')) {
+            unary();
+        } else {
+            power();
+        }
+    }
+
+    // power := primary ('^' unary)?
+    private void power() {
+        primary();
+        if (!accept('^')) return;
+        unary();
+        if (isConstant(count - 1)) {
+            double exponent = constants[constantCount - 1];
+            if (exponent == Math.rint(exponent) && Math.abs(exponent) <= 64 && !isConstant(count - 2)) {
+                removeLast();
+                constantCount--;
+                emit(Expression.POWI, (int) exponent);
+                return;
+            }
+        }
+        binary(Expression.POW);
+    }
+
+    // primary := number | variable | constant | function '(' expression ')' | '(' expression ')'
+    private void primary() {
+        skipSpaces();
+        if (pos >= text.length()) throw error("Unexpected end of expression");
+        char c = text.charAt(pos);
+        if (c == '(') {
+            pos++;
+            expression();
+            expect(')');
+        } else if (Character.isDigit(c) || c == '.') {
+            number();
+        } else if (Character.isLetter(c)) {
+            int start = pos;
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) pos++;
+            identifier(text.substring(start, pos).toLowerCase(), start);
+        } else {
+            throw error("Unexpected '" + c + "'");
+        }
+    }
+
+    private void identifier(String name, int start) {
+        switch (name) {
+            case "x": emit(Expression.X); return;
+            case "y": emit(Expression.Y); usesY = true; return;
+            case "pi": constant(Math.PI); return;
+            case "e": constant(Math.E); return;
+        }
+        int op;
+        switch (name) {
+            case "sin": op = Expression.SIN; break;
+            case "cos": op = Expression.COS; break;
+            case "tan": op = Expression.TAN; break;
+            case "exp": op = Expression.EXP; break;
+            case "ln":
+            case "log": op = Expression.LOG; break;
+            case "sqrt": op = Expression.SQRT; break;
+            case "abs": op = Expression.ABS; break;
+            default:
+                pos = start;
+                throw error("Unknown name '" + name + "'");
+        }
+        expect('(');
+        expression();
+        expect(')');
+        unary(op);
+    }
+
+    private void number() {
+        int start = pos;
+        while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) pos++;
+        // an exponent only if digits follow, otherwise "2e" is 2 * e
+        if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            int p = pos + 1;
+            if (p < text.length() && (text.charAt(p) == '+' || text.charAt(p) == '-')) p++;
+            if (p < text.length() && Character.isDigit(text.charAt(p))) {
+                pos = p;
+                while (pos < text.length() && Character.isDigit(text.charAt(pos))) pos++;
+            }
+        }
+        try {
+            constant(Double.parseDouble(text.substring(start, pos)));
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("Invalid number");
+        }
+    }
+
+    private void constant(double value) {
+        if (constantCount == constants.length) constants = Arrays.copyOf(constants, constantCount * 2);
+        constants[constantCount] = value;
+        emit(Expression.CONST, constantCount++);
+    }
+
+    private void binary(int op) {
+        if (isConstant(count - 1) && isConstant(count - 2)) {
+            double b = constants[--constantCount];
+            double a = constants[--constantCount];
+            removeLast();
+            removeLast();
+            constant(apply(op, a, b));
+        } else {
+            emit(op);
+        }
+    }
+
+    private void unary(int op) {
+        if (isConstant(count - 1)) {
+            double a = constants[--constantCount];
+            removeLast();
+            constant(apply(op, a, 0));
+        } else {
+            emit(op);
+        }
+    }
+
+    private static double apply(int op, double a, double b) {
+        switch (op) {
+            case Expression.ADD: return a + b;
+            case Expression.SUB: return a - b;
+            case Expression.MUL: return a * b;
+            case Expression.DIV: return a / b;
+            case Expression.POW: return Math.pow(a, b);
+            case Expression.NEG: return -a;
+            case Expression.SIN: return Math.sin(a);
+            case Expression.COS: return Math.cos(a);
+            case Expression.TAN: return Math.tan(a);
+            case Expression.EXP: return Math.exp(a);
+            case Expression.LOG: return Math.log(a);
+            case Expression.SQRT: return Math.sqrt(a);
+            case Expression.ABS: return Math.abs(a);
+            default: throw new IllegalStateException("Cannot fold instruction " + op);
+        }
+    }
+
+    private boolean isConstant(int instruction) {
+        return instruction >= 0 && code[starts[instruction]] == Expression.CONST;
+    }
+
+    private void emit(int... cells) {
+        if (length + cells.length > code.length) code = Arrays.copyOf(code, Math.max(code.length * 2, length + cells.length));
+        if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+        starts[count++] = length;
+        for (int cell : cells) code[length++] = cell;
+    }
+
+    private void removeLast() {
+        length = starts[--count];
+    }
+
+    /**
+     * Maximum stack depth reached by the program.
+     */
+    private static int depth(int[] code) {
+        int sp = 0;
+        int max = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case Expression.CONST: sp++; pc++; break;
+                case Expression.X:
+                case Expression.Y: sp++; break;
+                case Expression.ADD:
+                case Expression.SUB:
+                case Expression.MUL:
+                case Expression.DIV:
+                case Expression.POW: sp--; break;
+                case Expression.POWI: pc++; break;
+                default: break;
+            }
+            max = Math.max(max, sp);
+        }
+        return max;
+    }
+
+    private boolean startsPrimary() {
+        skipSpaces();
+        if (pos >= text.length()) return false;
+        char c = text.charAt(pos);
+        return c == '(' || c == '.' || Character.isLetterOrDigit(c);
+    }
+
+    private boolean accept(char c) {
+        skipSpaces();
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) throw error("Expected '" + c + "'");
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + (pos + 1) + " in \"" + text + "\"");
+    }
+}
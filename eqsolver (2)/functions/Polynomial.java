@@ -0,0 +1,97 @@
+package ru.rosroble.eqsolver.functions;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+
+/**
+ * A polynomial c0 + c1 x + ... + cn x^n with real coefficients.
+ * Values and derivatives are computed by Horner's scheme in one pass, without {@link Math#pow}.
+ */
+public class Polynomial implements DifferentiableFunction {
+    private final double[] coefficients;
+
+    /**
+     * @param coefficients c0, c1, ..., cn in ascending order of the power; zero leading coefficients are dropped
+     */
+    public Polynomial(double... coefficients) {
+        int n = coefficients.length - 1;
+        while (n > 0 && coefficients[n] == 0) n--;
+        this.coefficients = new double[Math.max(n + 1, 1)];
+        System.arraycopy(coefficients, 0, this.coefficients, 0, Math.min(coefficients.length, this.coefficients.length));
+    }
+
+    /**
+     * Copies the coefficients of p, for subclasses that decorate the evaluation of a polynomial
+     * while keeping its coefficients readable.
+     */
+    protected Polynomial(Polynomial p) {
+        this.coefficients = p.coefficients;
+    }
+
+    public int degree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * @param i a power
+     * @return the coefficient of x^i
+     */
+    public double coefficient(int i) {
+        return i < coefficients.length ? coefficients[i] : 0;
+    }
+
+    @Override
+    public double calculate(double x) {
+        double p = coefficients[coefficients.length - 1];
+        for (int i = coefficients.length - 2; i >= 0; i--) {
+            p = p * x + coefficients[i];
+        }
+        return p;
+    }
+
+    /**
+     * Evaluates p, p' and p'' at x.value() by Horner's scheme and applies the chain rule.
+     */
+    @Override
+    public Dual calculate(Dual x) {
+        double t = x.value();
+        double p = coefficients[coefficients.length - 1];
+        double d1 = 0;
+        double d2 = 0;
+        for (int i = coefficients.length - 2; i >= 0; i--) {
+            d2 = d2 * t + d1;
+            d1 = d1 * t + p;
+            p = p * t + coefficients[i];
+        }
+        d2 *= 2;
+        return new Dual(p, d1 * x.derivative(), d2 * x.derivative() * x.derivative() + d1 * x.secondDerivative());
+    }
+
+    /**
+     * @return the derivative polynomial
+     */
+    public Polynomial derivative() {
+        if (coefficients.length == 1) return new Polynomial(0);
+        double[] d = new double[coefficients.length - 1];
+        for (int i = 1; i < coefficients.length; i++) {
+            d[i - 1] = i * coefficients[i];
+        }
+        return new Polynomial(d);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            double c = coefficients[i];
+            if (c == 0 && coefficients.length > 1) continue;
+            if (sb.length() > 0) sb.append(c < 0 ? " - " : " + ");
+            else if (c < 0) sb.append('-');
+            double abs = Math.abs(c);
+            if (abs != 1 || i == 0) sb.append(abs == Math.rint(abs) && abs < 1e15 ? Long.toString((long) abs) : Double.toString(abs));
+            if (i > 0) sb.append('x');
+            if (i > 1) sb.append('^').append(i);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.rosroble.eqsolver.interfaces;
+
+/**
+ * A family of equations f_k(x) = 0 that differ only in their parameters, evaluated many at a time.
+ * Parameters are kept by the implementation in primitive arrays indexed by equation number,
+ * so that an evaluation is a plain loop over arrays the JIT compiler can vectorize.
+ */
+@FunctionalInterface
+public interface BatchFunction {
+    /**
+     * Evaluates equations offset, ..., offset + length - 1.
+     * @param offset number of the first equation
+     * @param length number of equations
+     * @param x points: equation offset + k is evaluated at x[k]
+     * @param value receives f_{offset + k}(x[k])
+     * @param derivative receives f'_{offset + k}(x[k])
+     */
+    void calculate(int offset, int length, double[] x, double[] value, double[] derivative);
+}
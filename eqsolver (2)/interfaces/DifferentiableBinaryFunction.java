@@ -0,0 +1,17 @@
+package ru.rosroble.eqsolver.interfaces;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+
+/**
+ * A function of two variables written in terms of {@link Dual} numbers.
+ * Seeding one argument with {@link Dual#variable(double)} gives the partial derivative with respect to it.
+ */
+@FunctionalInterface
+public interface DifferentiableBinaryFunction extends BinaryFunction {
+    Dual calculate(Dual x, Dual y);
+
+    @Override
+    default double calculate(double x, double y) {
+        return calculate(Dual.constant(x), Dual.constant(y)).value();
+    }
+}
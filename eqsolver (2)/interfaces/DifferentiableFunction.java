@@ -0,0 +1,17 @@
+package ru.rosroble.eqsolver.interfaces;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+
+/**
+ * A function written in terms of {@link Dual} numbers. It can still be used wherever a {@link Function} is expected,
+ * while solvers evaluate it on a seeded dual number to get exact derivatives at the cost of one evaluation.
+ */
+@FunctionalInterface
+public interface DifferentiableFunction extends Function {
+    Dual calculate(Dual x);
+
+    @Override
+    default double calculate(double x) {
+        return calculate(Dual.constant(x)).value();
+    }
+}
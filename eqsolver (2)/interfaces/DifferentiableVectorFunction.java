@@ -0,0 +1,12 @@
+package ru.rosroble.eqsolver.interfaces;
+
+/**
+ * A system of functions that can also provide its exact Jacobian.
+ */
+public interface DifferentiableVectorFunction extends VectorFunction {
+    /**
+     * @param x a point
+     * @param jacobian row-major n x n array receiving dF_i/dx_j at x
+     */
+    void jacobian(double[] x, double[] jacobian);
+}
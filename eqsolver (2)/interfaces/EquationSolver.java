@@ -1,9 +1,27 @@
 package ru.rosroble.eqsolver.interfaces;
 
+import ru.rosroble.eqsolver.result.MutableResult;
 import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
 import ru.rosroble.eqsolver.exceptions.DivergenceException;
 
 @FunctionalInterface
 public interface EquationSolver {
     Result solve(Function f, double a, double b) throws DivergenceException;
+
+    /**
+     * Solves f(x) = 0 on [a, b] writing the root into a reusable holder.
+     * Solvers meant for hot loops override this method without allocating and implement
+     * {@link #solve(Function, double, double)} on top of it; the default delegates the other way round.
+     * @param out receives the status, root, iteration count and error
+     * @throws DivergenceException thrown if the method cannot converge to a solution
+     */
+    default void solve(Function f, double a, double b, MutableResult out) throws DivergenceException {
+        Result result = solve(f, a, b);
+        if (result.getStatus() == ResultStatus.SOLUTION_FOUND) {
+            out.found(result.getSolution()[0], result.getIterations(), result.getError()[0]);
+        } else {
+            out.diverged(result.getIterations());
+        }
+    }
 }
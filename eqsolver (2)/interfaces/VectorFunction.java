@@ -0,0 +1,10 @@
+package ru.rosroble.eqsolver.interfaces;
+
+/**
+ * A system of n functions of n variables. Values are written into a caller-provided array
+ * so that evaluation in a solver loop does not allocate.
+ */
+@FunctionalInterface
+public interface VectorFunction {
+    void calculate(double[] x, double[] result);
+}
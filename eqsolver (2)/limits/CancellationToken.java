@@ -0,0 +1,17 @@
+package ru.rosroble.eqsolver.limits;
+
+/**
+ * A flag that asks running solves to stop. One token can be shared by any number of solves and threads;
+ * a cancelled token stays cancelled.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,74 @@
+package ru.rosroble.eqsolver.limits;
+
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces {@link SolveLimits} during one solve. Wrapped functions call {@link #check()} before every evaluation;
+ * once a limit is reached the check throws {@link Stop}, which unwinds the solver. Checks are thread-safe,
+ * so solvers that evaluate in parallel are stopped too.
+ */
+class Guard {
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final long maxEvaluations;
+    private final CancellationToken token;
+    private final AtomicLong evaluations = new AtomicLong();
+    // the first reason to stop, later checks report the same one
+    private volatile ResultStatus stopped;
+
+    Guard(SolveLimits limits) {
+        hasDeadline = limits.getTimeout() != null;
+        deadline = hasDeadline ? System.nanoTime() + limits.getTimeout().toNanos() : 0;
+        maxEvaluations = limits.getMaxEvaluations();
+        token = limits.getToken();
+    }
+
+    /**
+     * Accounts for one evaluation.
+     * @throws Stop if a limit has been reached
+     */
+    void check() {
+        ResultStatus status = stopped;
+        if (status != null) throw new Stop(status);
+        long count = evaluations.incrementAndGet();
+        if (token != null && token.isCancelled()) status = ResultStatus.CANCELLED;
+        else if (maxEvaluations > 0 && count > maxEvaluations) status = ResultStatus.BUDGET_EXHAUSTED;
+        else if (hasDeadline && System.nanoTime() - deadline >= 0) status = ResultStatus.DEADLINE_EXCEEDED;
+        else return;
+        // the rejected evaluation is not made
+        evaluations.decrementAndGet();
+        stopped = status;
+        throw new Stop(status);
+    }
+
+    /**
+     * @return number of evaluations allowed so far
+     */
+    long getEvaluations() {
+        return evaluations.get();
+    }
+
+    /**
+     * @return the reason a solver was stopped if the throwable or one of its causes is a {@link Stop}, otherwise null
+     */
+    static ResultStatus reason(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof Stop) return ((Stop) t).status;
+        }
+        return null;
+    }
+
+    /**
+     * Unwinds a solver that reached a limit. Carries no stack trace: it is control flow, not an error.
+     */
+    static class Stop extends RuntimeException {
+        final ResultStatus status;
+
+        Stop(ResultStatus status) {
+            super(status.name(), null, false, false);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ru.rosroble.eqsolver.limits;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.functions.Polynomial;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+/**
+ * Runs a solver within {@link SolveLimits}. The function is wrapped so that every evaluation first checks the limits,
+ * and a solver that reaches one is stopped at its next evaluation. Any solver can be bounded this way, including
+ * solvers that evaluate in parallel, as long as a single evaluation is short compared to the timeout.
+ * <p>
+ * A stopped solve returns a result with the reason as its status (CANCELLED, BUDGET_EXHAUSTED or DEADLINE_EXCEEDED),
+ * the evaluated point with the smallest |f| as the solution and zero iterations. The error is the distance
+ * to the nearest point where f had the opposite sign with the smallest |f| (a root of a continuous f lies between them),
+ * or NaN if f has not changed sign yet. A solve stopped before any evaluation has no solution.
+ * The {@link MutableResult} overload reports the same through {@link MutableResult#stopped}.
+ * A wrapped {@link Polynomial} stays a polynomial with the same coefficients, so solvers that read them still accept it;
+ * reading coefficients is not an evaluation, so such solvers are bounded only by their own iteration limit.
+ */
+public class LimitedSolver implements EquationSolver {
+    private final EquationSolver solver;
+    private final SolveLimits limits;
+
+    public LimitedSolver(EquationSolver solver, SolveLimits limits) {
+        this.solver = solver;
+        this.limits = limits;
+    }
+
+    /**
+     * Solves within the limits given to the constructor; the timeout is counted from this call.
+     */
+    @Override
+    public Result solve(Function f, double a, double b) throws DivergenceException {
+        return solve(f, a, b, limits);
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) throws DivergenceException {
+        solve(f, a, b, limits, out);
+    }
+
+    /**
+     * Same as {@link #solve(Function, double, double, SolveLimits)}, but writes the result into the holder.
+     */
+    public void solve(Function f, double a, double b, SolveLimits limits, MutableResult out)
+            throws DivergenceException {
+        Guard guard = new Guard(limits);
+        Tracker tracker = new Tracker();
+        try {
+            solver.solve(tracker.wrap(f, guard), a, b, out);
+        } catch (RuntimeException e) {
+            ResultStatus reason = Guard.reason(e);
+            if (reason == null) throw e;
+            tracker.stop(reason, out);
+        }
+    }
+
+    /**
+     * Solves f(x) = 0 on [a, b] within the given limits.
+     * @throws DivergenceException thrown if the solver cannot converge before reaching a limit
+     */
+    public Result solve(Function f, double a, double b, SolveLimits limits) throws DivergenceException {
+        Guard guard = new Guard(limits);
+        Tracker tracker = new Tracker();
+        try {
+            return solver.solve(tracker.wrap(f, guard), a, b);
+        } catch (RuntimeException e) {
+            ResultStatus reason = Guard.reason(e);
+            if (reason == null) throw e;
+            return tracker.toResult(reason);
+        }
+    }
+
+    /**
+     * Best points of one solve: the evaluated points with the smallest |f| among positive and negative values of f.
+     */
+    private static class Tracker {
+        private double positive = Double.NaN;
+        private double positiveValue = Double.POSITIVE_INFINITY;
+        private double negative = Double.NaN;
+        private double negativeValue = Double.NEGATIVE_INFINITY;
+
+        synchronized void record(double x, double fx) {
+            if (fx >= 0 && fx < positiveValue) {
+                positive = x;
+                positiveValue = fx;
+            } else if (fx < 0 && fx > negativeValue) {
+                negative = x;
+                negativeValue = fx;
+            }
+        }
+
+        synchronized Result toResult(ResultStatus status) {
+            if (Double.isNaN(positive) && Double.isNaN(negative)) return new Result(status, null, 0, null);
+            return new Result(status, new double[] {best()}, 0, new double[] {error()});
+        }
+
+        synchronized void stop(ResultStatus status, MutableResult out) {
+            out.stopped(status, best(), 0, error());
+        }
+
+        // NaN if nothing has been evaluated
+        private double best() {
+            return Double.isNaN(negative) || (!Double.isNaN(positive) && positiveValue < -negativeValue)
+                    ? positive : negative;
+        }
+
+        // NaN unless both signs have been seen
+        private double error() {
+            return Math.abs(positive - negative);
+        }
+
+        Function wrap(Function f, Guard guard) {
+            if (f instanceof Polynomial) {
+                // evaluates through p, which may itself be a decorated polynomial
+                Polynomial p = (Polynomial) f;
+                return new Polynomial(p) {
+                    @Override
+                    public Dual calculate(Dual x) {
+                        guard.check();
+                        Dual y = p.calculate(x);
+                        record(x.value(), y.value());
+                        return y;
+                    }
+
+                    @Override
+                    public double calculate(double x) {
+                        guard.check();
+                        double y = p.calculate(x);
+                        record(x, y);
+                        return y;
+                    }
+                };
+            }
+            if (f instanceof DifferentiableFunction) {
+                DifferentiableFunction df = (DifferentiableFunction) f;
+                return new DifferentiableFunction() {
+                    @Override
+                    public Dual calculate(Dual x) {
+                        guard.check();
+                        Dual y = df.calculate(x);
+                        record(x.value(), y.value());
+                        return y;
+                    }
+
+                    @Override
+                    public double calculate(double x) {
+                        guard.check();
+                        double y = df.calculate(x);
+                        record(x, y);
+                        return y;
+                    }
+                };
+            }
+            return x -> {
+                guard.check();
+                double y = f.calculate(x);
+                record(x, y);
+                return y;
+            };
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.rosroble.eqsolver.limits;
+
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.interfaces.DifferentiableVectorFunction;
+import ru.rosroble.eqsolver.interfaces.VectorFunction;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+import ru.rosroble.eqsolver.solvers.NewtonSystemSolver;
+
+import java.util.Arrays;
+
+/**
+ * Runs {@link NewtonSystemSolver} within {@link SolveLimits} the same way as {@link LimitedSolver}:
+ * every evaluation of the system or its Jacobian checks the limits. A stopped solve returns the evaluated point
+ * with the smallest residual norm as the solution, NaN errors and zero iterations.
+ * An instance is not thread-safe, as the solver it runs.
+ */
+public class LimitedSystemSolver {
+    private final NewtonSystemSolver solver;
+    private final SolveLimits limits;
+
+    public LimitedSystemSolver(NewtonSystemSolver solver, SolveLimits limits) {
+        this.solver = solver;
+        this.limits = limits;
+    }
+
+    /**
+     * Solves F(x) = 0 starting from x0 within the limits given to the constructor; the timeout is counted from this call.
+     * @throws DivergenceException thrown if the Jacobian becomes singular before a limit is reached
+     */
+    public Result solve(VectorFunction system, double[] x0) throws DivergenceException {
+        return solve(system, x0, limits);
+    }
+
+    public Result solve(VectorFunction system, double[] x0, SolveLimits limits) throws DivergenceException {
+        Guard guard = new Guard(limits);
+        Tracker tracker = new Tracker(x0.length);
+        try {
+            return solver.solve(tracker.wrap(system, guard), x0);
+        } catch (RuntimeException e) {
+            ResultStatus reason = Guard.reason(e);
+            if (reason == null) throw e;
+            return tracker.toResult(reason);
+        }
+    }
+
+    /**
+     * The evaluated point with the smallest residual norm.
+     */
+    private static class Tracker {
+        private final double[] best;
+        private double bestNorm = Double.POSITIVE_INFINITY;
+
+        Tracker(int n) {
+            best = new double[n];
+        }
+
+        void record(double[] x, double[] f) {
+            double norm = 0;
+            for (double value : f) {
+                norm = Math.hypot(norm, value);
+            }
+            if (norm < bestNorm) {
+                bestNorm = norm;
+                System.arraycopy(x, 0, best, 0, best.length);
+            }
+        }
+
+        Result toResult(ResultStatus status) {
+            if (bestNorm == Double.POSITIVE_INFINITY) return new Result(status, null, 0, null);
+            double[] error = new double[best.length];
+            Arrays.fill(error, Double.NaN);
+            return new Result(status, best.clone(), 0, error);
+        }
+
+        VectorFunction wrap(VectorFunction system, Guard guard) {
+            if (system instanceof DifferentiableVectorFunction) {
+                DifferentiableVectorFunction ds = (DifferentiableVectorFunction) system;
+                return new DifferentiableVectorFunction() {
+                    @Override
+                    public void calculate(double[] x, double[] result) {
+                        guard.check();
+                        ds.calculate(x, result);
+                        record(x, result);
+                    }
+
+                    @Override
+                    public void jacobian(double[] x, double[] jacobian) {
+                        guard.check();
+                        ds.jacobian(x, jacobian);
+                    }
+                };
+            }
+            return (x, result) -> {
+                guard.check();
+                system.calculate(x, result);
+                record(x, result);
+            };
+        }
+    }
+}
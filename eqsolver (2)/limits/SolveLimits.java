@@ -0,0 +1,33 @@
+package ru.rosroble.eqsolver.limits;
+
+import java.time.Duration;
+
+/**
+ * Bounds of one solve: a wall-clock timeout counted from the start of the solve, a budget of function evaluations
+ * and a cancellation token. A null timeout or token, or a non-positive budget, means no bound.
+ */
+public class SolveLimits {
+    public static final SolveLimits NONE = new SolveLimits(null, 0, null);
+    private final Duration timeout;
+    private final long maxEvaluations;
+    private final CancellationToken token;
+
+    public SolveLimits(Duration timeout, long maxEvaluations, CancellationToken token) {
+        if (timeout != null && timeout.isNegative()) throw new IllegalArgumentException("timeout should not be negative");
+        this.timeout = timeout;
+        this.maxEvaluations = maxEvaluations;
+        this.token = token;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public long getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.rosroble.eqsolver.metrics;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.functions.Polynomial;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorates a solver with metrics: every solve is timed into {@link SolverMetrics} and emitted as a {@link SolveEvent}.
+ * The function is wrapped to count its evaluations; an evaluation of a {@link DifferentiableFunction} on a dual number
+ * counts both as an evaluation and as a derivative. A wrapped differentiable function stays differentiable,
+ * so solvers keep using exact derivatives. A wrapped {@link Polynomial} stays a polynomial with the same coefficients,
+ * so solvers that read them still accept it; reading coefficients is not counted as an evaluation.
+ */
+public class InstrumentedSolver implements EquationSolver {
+    private final EquationSolver solver;
+    private final SolverMetrics metrics;
+
+    public InstrumentedSolver(String name, EquationSolver solver) {
+        this.solver = solver;
+        this.metrics = SolverMetrics.forName(name);
+    }
+
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Result solve(Function f, double a, double b) throws DivergenceException {
+        Counting counting = new Counting(f);
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Result result = null;
+        try {
+            result = solver.solve(counting.function, a, b);
+            return result;
+        } finally {
+            finish(event, start, counting, result == null ? null : result.getStatus(),
+                    result == null ? 0 : result.getIterations());
+        }
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) throws DivergenceException {
+        Counting counting = new Counting(f);
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean done = false;
+        try {
+            solver.solve(counting.function, a, b, out);
+            done = true;
+        } finally {
+            finish(event, start, counting, done ? out.getStatus() : null, done ? out.getIterations() : 0);
+        }
+    }
+
+    /**
+     * Records a finished solve; a null status means the solver threw an exception.
+     */
+    private void finish(SolveEvent event, long start, Counting counting, ResultStatus status, int iterations) {
+        long nanos = System.nanoTime() - start;
+        long evaluations = counting.evaluations.sum();
+        long derivatives = counting.derivatives.sum();
+        metrics.record(nanos, status != ResultStatus.SOLUTION_FOUND, iterations, evaluations, derivatives, 0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = metrics.getName();
+            event.status = status == null ? "EXCEPTION" : status.name();
+            event.iterations = iterations;
+            event.evaluations = evaluations;
+            event.derivatives = derivatives;
+            event.commit();
+        }
+    }
+
+    /**
+     * Evaluation counters of one solve. Solvers may evaluate the function from several threads.
+     */
+    private static class Counting {
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder derivatives = new LongAdder();
+        final Function function;
+
+        Counting(Function f) {
+            if (f instanceof Polynomial) {
+                // evaluates through p, which may itself be a decorated polynomial
+                Polynomial p = (Polynomial) f;
+                function = new Polynomial(p) {
+                    @Override
+                    public Dual calculate(Dual x) {
+                        evaluations.increment();
+                        derivatives.increment();
+                        return p.calculate(x);
+                    }
+
+                    @Override
+                    public double calculate(double x) {
+                        evaluations.increment();
+                        return p.calculate(x);
+                    }
+                };
+            } else if (f instanceof DifferentiableFunction) {
+                DifferentiableFunction df = (DifferentiableFunction) f;
+                function = new DifferentiableFunction() {
+                    @Override
+                    public Dual calculate(Dual x) {
+                        evaluations.increment();
+                        derivatives.increment();
+                        return df.calculate(x);
+                    }
+
+                    @Override
+                    public double calculate(double x) {
+                        evaluations.increment();
+                        return df.calculate(x);
+                    }
+                };
+            } else {
+                function = x -> {
+                    evaluations.increment();
+                    return f.calculate(x);
+                };
+            }
+        }
+    }
+}
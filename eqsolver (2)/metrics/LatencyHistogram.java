@@ -0,0 +1,64 @@
+package ru.rosroble.eqsolver.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with power-of-two buckets:
+ * bucket k holds durations in [2^(k - 1), 2^k), so percentiles are known up to a factor of two.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param p a fraction in [0, 1]
+     * @return an upper bound of the p-th quantile in nanoseconds, 0 if nothing was recorded
+     */
+    public long percentile(double p) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int k = 0; k < BUCKETS; k++) {
+            snapshot[k] = buckets.get(k);
+            n += snapshot[k];
+        }
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int k = 0; k < BUCKETS; k++) {
+            seen += snapshot[k];
+            if (seen >= rank && seen > 0) return k == BUCKETS - 1 ? getMax() : Math.min(1L << k, getMax());
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean %.1f us, p50 <= %.1f us, p99 <= %.1f us, max %.1f us",
+                getMean() / 1e3, percentile(0.5) / 1e3, percentile(0.99) / 1e3, getMax() / 1e3);
+    }
+}
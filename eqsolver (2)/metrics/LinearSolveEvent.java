@@ -0,0 +1,27 @@
+package ru.rosroble.eqsolver.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of one linear system solve. Costs nothing while recording is off.
+ */
+@Name("ru.rosroble.eqsolver.LinearSolve")
+@Label("Linear Solve")
+@Category("Equation Solver")
+@Description("Solution of a linear system by simple iteration")
+@StackTrace(false)
+public class LinearSolveEvent extends Event {
+    @Label("Size")
+    public int size;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Iterations")
+    public int iterations;
+}
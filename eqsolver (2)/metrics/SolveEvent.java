@@ -0,0 +1,36 @@
+package ru.rosroble.eqsolver.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of one solve. Costs nothing while recording is off.
+ */
+@Name("ru.rosroble.eqsolver.Solve")
+@Label("Solve")
+@Category("Equation Solver")
+@Description("Solution of an equation or a system of equations")
+@StackTrace(false)
+public class SolveEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Iterations")
+    public int iterations;
+
+    @Label("Evaluations")
+    public long evaluations;
+
+    @Label("Derivatives")
+    public long derivatives;
+
+    @Label("Linear Solves")
+    public long linearSolves;
+}
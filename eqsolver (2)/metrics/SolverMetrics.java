@@ -0,0 +1,119 @@
+package ru.rosroble.eqsolver.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and a latency histogram of one solver, kept in a process-wide registry by name.
+ * All updates are lock-free, so one instance can be shared by solvers running in parallel.
+ */
+public class SolverMetrics {
+    private static final ConcurrentMap<String, SolverMetrics> REGISTRY = new ConcurrentHashMap<>();
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder derivatives = new LongAdder();
+    private final LongAdder linearSolves = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private SolverMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the metrics registered under the name, created on first use
+     */
+    public static SolverMetrics forName(String name) {
+        return REGISTRY.computeIfAbsent(name, SolverMetrics::new);
+    }
+
+    /**
+     * @return all registered metrics in order of name
+     */
+    public static List<SolverMetrics> all() {
+        List<SolverMetrics> metrics = new ArrayList<>(REGISTRY.values());
+        metrics.sort(Comparator.comparing(SolverMetrics::getName));
+        return metrics;
+    }
+
+    /**
+     * @return one line per registered metrics that was used
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (SolverMetrics metrics : all()) {
+            if (metrics.getCalls() > 0 || metrics.getDerivatives() > 0) sb.append(metrics).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Records one finished solve.
+     * @param nanos wall-clock duration
+     * @param failed true if no solution was found
+     * @param evaluations function evaluations, including evaluations on dual numbers
+     * @param derivatives evaluations that also gave derivatives
+     */
+    public void record(long nanos, boolean failed, int iterations, long evaluations, long derivatives, long linearSolves) {
+        calls.increment();
+        if (failed) failures.increment();
+        this.iterations.add(iterations);
+        this.evaluations.add(evaluations);
+        this.derivatives.add(derivatives);
+        this.linearSolves.add(linearSolves);
+        latency.record(nanos);
+    }
+
+    /**
+     * Counts a derivative computed outside of a recorded solve.
+     */
+    public void countDerivative() {
+        derivatives.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getIterations() {
+        return iterations.sum();
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getDerivatives() {
+        return derivatives.sum();
+    }
+
+    public long getLinearSolves() {
+        return linearSolves.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": calls " + getCalls() + ", failures " + getFailures() + ", iterations " + getIterations()
+                + ", evaluations " + getEvaluations() + ", derivatives " + getDerivatives()
+                + ", linear solves " + getLinearSolves()
+                + (getCalls() > 0 ? ", " + latency : "");
+    }
+}
@@ -0,0 +1,138 @@
+package ru.rosroble.eqsolver.plot;
+
+import ru.rosroble.eqsolver.interfaces.Function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Chooses the points at which a function is plotted. The interval is first sampled uniformly, then segments
+ * where the curve bends are subdivided: a segment [x0, x1] is split when the value at its midpoint deviates
+ * from the chord by more than a fraction of the plotted value range. Subdivision goes in rounds, worst segments
+ * first, until the deviation is invisible or the point budget is spent; the points of every round are evaluated
+ * in parallel, so functions must be safe for concurrent use.
+ */
+public class AdaptiveSampler {
+    public static final int DEFAULT_BUDGET = 2000;
+    // deviation from the chord considered invisible, as a fraction of the value range
+    public static final double TOLERANCE = 1e-3;
+    // segments shorter than (b - a) * MIN_WIDTH are not split
+    private static final double MIN_WIDTH = 1e-9;
+    // below this number of points a batch is evaluated sequentially
+    private static final int PARALLEL_THRESHOLD = 256;
+    private final int budget;
+
+    public AdaptiveSampler(int budget) {
+        if (budget < 8) throw new IllegalArgumentException("Point budget should be at least 8");
+        this.budget = budget;
+    }
+
+    public AdaptiveSampler() {
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * @param f a function
+     * @param a left end of the interval
+     * @param b right end of the interval
+     * @param step spacing of the initial uniform grid; the grid is coarsened if it would take more than
+     *             a quarter of the budget
+     * @return two arrays of equal length: x in ascending order and f(x) (NaN where f is undefined)
+     */
+    public double[][] sample(Function f, double a, double b, double step) {
+        int segments = (int) Math.min(budget / 4, Math.max(8, Math.ceil((b - a) / step)));
+        // a segment is [x0, x1] with the midpoint xm; points are kept as x, y and the midpoint y
+        double[] grid = new double[2 * segments + 1];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = i == grid.length - 1 ? b : a + (b - a) * i / (grid.length - 1);
+        }
+        double[] values = evaluate(f, grid);
+        List<double[]> list = new ArrayList<>(segments);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < segments; i++) {
+            list.add(new double[] {grid[2 * i], values[2 * i], grid[2 * i + 2], values[2 * i + 2], values[2 * i + 1]});
+        }
+        for (double y : values) {
+            if (Double.isFinite(y)) {
+                min = Math.min(min, y);
+                max = Math.max(max, y);
+            }
+        }
+        double scale = max > min ? max - min : 1;
+        double minWidth = (b - a) * MIN_WIDTH;
+        int points = grid.length;
+        while (points + 2 <= budget) {
+            // segments worth splitting, worst first; every split costs two new points
+            int[] order = IntStream.range(0, list.size())
+                    .filter(i -> deviation(list.get(i)) > TOLERANCE * scale && list.get(i)[2] - list.get(i)[0] > minWidth)
+                    .boxed()
+                    .sorted((i, j) -> Double.compare(deviation(list.get(j)), deviation(list.get(i))))
+                    .limit((budget - points) / 2)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            if (order.length == 0) break;
+            Arrays.sort(order);
+            double[] quarters = new double[2 * order.length];
+            for (int k = 0; k < order.length; k++) {
+                double[] s = list.get(order[k]);
+                double mid = s[0] + (s[2] - s[0]) / 2;
+                quarters[2 * k] = s[0] + (mid - s[0]) / 2;
+                quarters[2 * k + 1] = mid + (s[2] - mid) / 2;
+            }
+            double[] quarterValues = evaluate(f, quarters);
+            List<double[]> next = new ArrayList<>(list.size() + order.length);
+            int k = 0;
+            for (int i = 0; i < list.size(); i++) {
+                double[] s = list.get(i);
+                if (k < order.length && order[k] == i) {
+                    double mid = s[0] + (s[2] - s[0]) / 2;
+                    next.add(new double[] {s[0], s[1], mid, s[4], quarterValues[2 * k]});
+                    next.add(new double[] {mid, s[4], s[2], s[3], quarterValues[2 * k + 1]});
+                    k++;
+                } else {
+                    next.add(s);
+                }
+            }
+            list.clear();
+            list.addAll(next);
+            points += quarters.length;
+        }
+        double[] xs = new double[2 * list.size() + 1];
+        double[] ys = new double[xs.length];
+        for (int i = 0; i < list.size(); i++) {
+            double[] s = list.get(i);
+            xs[2 * i] = s[0];
+            ys[2 * i] = s[1];
+            xs[2 * i + 1] = s[0] + (s[2] - s[0]) / 2;
+            ys[2 * i + 1] = s[4];
+        }
+        double[] last = list.get(list.size() - 1);
+        xs[xs.length - 1] = last[2];
+        ys[ys.length - 1] = last[3];
+        return new double[][] {xs, ys};
+    }
+
+    /**
+     * Distance between the midpoint value and the chord; infinite where the function is defined only
+     * on a part of the segment, so that domain boundaries and poles are refined.
+     */
+    private static double deviation(double[] s) {
+        boolean y0 = Double.isFinite(s[1]);
+        boolean y1 = Double.isFinite(s[3]);
+        boolean ym = Double.isFinite(s[4]);
+        if (!y0 && !y1 && !ym) return 0;
+        if (!y0 || !y1 || !ym) return Double.POSITIVE_INFINITY;
+        return Math.abs(s[4] - (s[1] + s[3]) / 2);
+    }
+
+    private static double[] evaluate(Function f, double[] xs) {
+        double[] ys = new double[xs.length];
+        IntStream range = IntStream.range(0, xs.length);
+        if (xs.length >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(i -> ys[i] = f.calculate(xs[i]));
+        return ys;
+    }
+}
@@ -3,29 +3,49 @@ package ru.rosroble.eqsolver.plot;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.chart.ui.ApplicationFrame;
 import org.jfree.data.xy.XYDataset;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
+import ru.rosroble.eqsolver.interfaces.BinaryFunction;
 import ru.rosroble.eqsolver.interfaces.Function;
 
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 
+/**
+ * Plots functions and systems. Points of function graphs are chosen by {@link AdaptiveSampler} with a fixed budget per function and computed
+ * off the event dispatch thread; when the user zooms, the visible range is resampled with the same budget,
+ * so the level of detail follows the zoom.
+ */
 public class GraphFrame extends ApplicationFrame {
+    // initial grid spacing of the adaptive sampler
     public static final double DEFAULT_STEP = 0.05;
+    private final AdaptiveSampler sampler = new AdaptiveSampler();
+    // number of the latest requested sampling; results of older ones are dropped
+    private final AtomicLong generation = new AtomicLong();
+    // range of the latest requested sampling; setting a dataset fires axis events that must not trigger another one
+    private double sampledFrom = Double.NaN;
+    private double sampledTo = Double.NaN;
 
     public GraphFrame(String title) {
         super(title);
     }
 
     public void graph(double a, double b, Function... functions) {
-        XYDataset dataset = generateDataset(a, b, DEFAULT_STEP, functions);
         JFreeChart chart = ChartFactory.createXYAreaChart(
                 "Graph",
                 "X",
                 "Y",
-                dataset,
+                new XYSeriesCollection(),
                 PlotOrientation.VERTICAL,
                 false,
                 true,
@@ -35,6 +55,13 @@ public class GraphFrame extends ApplicationFrame {
         panel.setFillZoomRectangle(false);
         panel.setDomainZoomable(true);
         panel.setRangeZoomable(true);
+        ValueAxis domain = chart.getXYPlot().getDomainAxis();
+        // zoom: resample the visible range; zoom reset turns auto range back on: resample [a, b]
+        domain.addChangeListener(event -> {
+            if (domain.isAutoRange()) resample(chart, a, b, functions);
+            else resample(chart, domain.getLowerBound(), domain.getUpperBound(), functions);
+        });
+        resample(chart, a, b, functions);
         pack();
         setSize(800, 600);
         setLocationRelativeTo(null);
@@ -42,22 +69,90 @@ public class GraphFrame extends ApplicationFrame {
         setVisible(true);
     }
 
-    private XYDataset generateDataset(double from, double to, double step, Function... functions) {
+    /**
+     * Samples the functions on [from, to] in the background and shows the result if no newer request was made.
+     */
+    private void resample(JFreeChart chart, double from, double to, Function... functions) {
+        if (from == sampledFrom && to == sampledTo) return;
+        sampledFrom = from;
+        sampledTo = to;
+        long request = generation.incrementAndGet();
+        CompletableFuture.supplyAsync(() -> generateDataset(from, to, functions))
+                .thenAccept(dataset -> SwingUtilities.invokeLater(() -> {
+                    if (generation.get() == request) chart.getXYPlot().setDataset(dataset);
+                }));
+    }
+
+    private XYDataset generateDataset(double from, double to, Function... functions) {
         XYSeriesCollection dataset = new XYSeriesCollection();
         for (Function f: functions) {
-            XYSeries series = new XYSeries(f.hashCode());
-            for (double x = from; x < to + step; x += step) {
-                series.add(x, f.calculate(x));
+            double[][] points = sampler.sample(f, from, to, DEFAULT_STEP);
+            XYSeries series = new XYSeries(f.hashCode(), false, true);
+            for (int i = 0; i < points[0].length; i++) {
+                series.add(points[0][i], points[1][i], false);
             }
             dataset.addSeries(series);
         }
         return dataset;
     }
 
-    public void system(double from, double to) {
-        Function f1 = x -> (Math.sqrt(4 - x*x));
-        Function f1_ = x -> (-Math.sqrt(4 - x*x));
-        Function f2 = Math::sin;
-        graph(from, to, f1, f1_, f2);
+    /**
+     * Plots the curves f_k(x, y) = 0 traced by {@link ImplicitCurveTracer} and marks the given points.
+     * Curves are traced off the event dispatch thread.
+     * @param points points to mark, e.g. solutions of the system, as {x, y} pairs
+     */
+    public void system(double x0, double x1, double y0, double y1, List<double[]> points, BinaryFunction... functions) {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "System",
+                "X",
+                "Y",
+                dataset,
+                PlotOrientation.VERTICAL,
+                false,
+                true,
+                false
+        );
+        XYPlot plot = chart.getXYPlot();
+        plot.getDomainAxis().setRange(x0, x1);
+        plot.getRangeAxis().setRange(y0, y1);
+        XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer) plot.getRenderer();
+        ImplicitCurveTracer tracer = new ImplicitCurveTracer();
+        CompletableFuture.supplyAsync(() -> {
+            List<XYSeries> curves = new ArrayList<>();
+            for (int k = 0; k < functions.length; k++) {
+                double[] segments = tracer.trace(functions[k], x0, x1, y0, y1);
+                // segments are separated by NaN points, which the renderer does not connect
+                XYSeries series = new XYSeries("f" + (k + 1), false, true);
+                for (int i = 0; i < segments.length; i += 4) {
+                    series.add(segments[i], segments[i + 1], false);
+                    series.add(segments[i + 2], segments[i + 3], false);
+                    series.add(Double.NaN, Double.NaN, false);
+                }
+                curves.add(series);
+            }
+            return curves;
+        }).thenAccept(curves -> SwingUtilities.invokeLater(() -> {
+            for (XYSeries curve : curves) {
+                dataset.addSeries(curve);
+                renderer.setSeriesShapesVisible(dataset.getSeriesCount() - 1, false);
+            }
+            XYSeries marks = new XYSeries("points", false, true);
+            for (double[] point : points) {
+                marks.add(point[0], point[1]);
+            }
+            dataset.addSeries(marks);
+            renderer.setSeriesLinesVisible(dataset.getSeriesCount() - 1, false);
+            renderer.setSeriesShapesVisible(dataset.getSeriesCount() - 1, true);
+        }));
+        ChartPanel panel = new ChartPanel(chart);
+        panel.setFillZoomRectangle(false);
+        panel.setDomainZoomable(true);
+        panel.setRangeZoomable(true);
+        pack();
+        setSize(800, 600);
+        setLocationRelativeTo(null);
+        setContentPane(panel);
+        setVisible(true);
     }
 }
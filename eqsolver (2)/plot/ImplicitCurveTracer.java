@@ -0,0 +1,182 @@
+package ru.rosroble.eqsolver.plot;
+
+import ru.rosroble.eqsolver.interfaces.BinaryFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Traces the zero set f(x, y) = 0 of a function of two variables by marching squares.
+ * The rectangle is covered by a coarse grid evaluated in parallel by rows; only cells whose corner values
+ * change sign are refined into a finer grid and marched, so the cost grows with the length of the curve
+ * rather than the area. Curve parts that do not change the sign of f at the corners of any coarse cell
+ * (closed loops smaller than a cell, touching zeros) are not detected.
+ * Functions must be safe for concurrent use.
+ */
+public class ImplicitCurveTracer {
+    public static final int DEFAULT_GRID = 128;
+    public static final int DEFAULT_REFINEMENT = 8;
+    // edges of a cell: 0 bottom (corners 0-1), 1 right (1-2), 2 top (2-3), 3 left (3-0)
+    // corners: 0 (x, y), 1 (x + h, y), 2 (x + h, y + h), 3 (x, y + h)
+    private static final int[][] EDGES = {
+            {}, {3, 0}, {0, 1}, {3, 1}, {1, 2}, null, {0, 2}, {3, 2},
+            {3, 2}, {0, 2}, null, {1, 2}, {1, 3}, {0, 1}, {3, 0}, {}
+    };
+    private final int grid;
+    private final int refinement;
+
+    public ImplicitCurveTracer(int grid, int refinement) {
+        if (grid < 1 || refinement < 1) throw new IllegalArgumentException("Grid sizes should be positive");
+        this.grid = grid;
+        this.refinement = refinement;
+    }
+
+    public ImplicitCurveTracer() {
+        this(DEFAULT_GRID, DEFAULT_REFINEMENT);
+    }
+
+    /**
+     * @return segments of the curve f = 0 inside [x0, x1] x [y0, y1], packed as x1, y1, x2, y2 for every segment
+     */
+    public double[] trace(BinaryFunction f, double x0, double x1, double y0, double y1) {
+        double[] values = coarse(f, x0, x1, y0, y1);
+        double hx = (x1 - x0) / grid;
+        double hy = (y1 - y0) / grid;
+        double[][] parts = crossingCells(values).parallel()
+                .mapToObj(cell -> march(f, x0 + (cell % grid) * hx, y0 + (cell / grid) * hy, hx, hy))
+                .toArray(double[][]::new);
+        int length = 0;
+        for (double[] part : parts) length += part.length;
+        double[] segments = new double[length];
+        int position = 0;
+        for (double[] part : parts) {
+            System.arraycopy(part, 0, segments, position, part.length);
+            position += part.length;
+        }
+        return segments;
+    }
+
+    /**
+     * Finds points near the intersections of two curves f1 = 0 and f2 = 0: centers of the refined cells
+     * where both functions change sign, at most one per coarse cell. Useful as starting points for Newton's method.
+     * @return seeds as {x, y} pairs
+     */
+    public List<double[]> seeds(BinaryFunction f1, BinaryFunction f2, double x0, double x1, double y0, double y1) {
+        double[] v1 = coarse(f1, x0, x1, y0, y1);
+        double[] v2 = coarse(f2, x0, x1, y0, y1);
+        double hx = (x1 - x0) / grid;
+        double hy = (y1 - y0) / grid;
+        int[] both = crossingCells(v1).filter(cell -> crosses(v2, cell % grid, cell / grid, grid + 1)).toArray();
+        List<double[]> seeds = new ArrayList<>();
+        IntStream.of(both).parallel()
+                .mapToObj(cell -> refinedSeed(f1, f2, x0 + (cell % grid) * hx, y0 + (cell / grid) * hy, hx, hy))
+                .forEachOrdered(seed -> {
+                    if (seed != null) seeds.add(seed);
+                });
+        return seeds;
+    }
+
+    // values at the (grid + 1) x (grid + 1) nodes, row by row from y0
+    private double[] coarse(BinaryFunction f, double x0, double x1, double y0, double y1) {
+        int n = grid + 1;
+        double[] values = new double[n * n];
+        IntStream.range(0, n).parallel().forEach(j -> {
+            double y = j == grid ? y1 : y0 + (y1 - y0) * j / grid;
+            for (int i = 0; i < n; i++) {
+                double x = i == grid ? x1 : x0 + (x1 - x0) * i / grid;
+                values[j * n + i] = f.calculate(x, y);
+            }
+        });
+        return values;
+    }
+
+    private IntStream crossingCells(double[] values) {
+        return IntStream.range(0, grid * grid).filter(cell -> crosses(values, cell % grid, cell / grid, grid + 1));
+    }
+
+    // true if the corner values of cell (i, j) of a grid with n nodes per row are finite and change sign
+    private static boolean crosses(double[] values, int i, int j, int n) {
+        double a = values[j * n + i];
+        double b = values[j * n + i + 1];
+        double c = values[(j + 1) * n + i + 1];
+        double d = values[(j + 1) * n + i];
+        if (!Double.isFinite(a) || !Double.isFinite(b) || !Double.isFinite(c) || !Double.isFinite(d)) return false;
+        double min = Math.min(Math.min(a, b), Math.min(c, d));
+        double max = Math.max(Math.max(a, b), Math.max(c, d));
+        return min <= 0 && max > 0;
+    }
+
+    private double[] refine(BinaryFunction f, double x, double y, double hx, double hy) {
+        int n = refinement + 1;
+        double[] values = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < n; i++) {
+                values[j * n + i] = f.calculate(x + hx * i / refinement, y + hy * j / refinement);
+            }
+        }
+        return values;
+    }
+
+    // segments inside one coarse cell, traced on its refined grid
+    private double[] march(BinaryFunction f, double x, double y, double hx, double hy) {
+        int n = refinement + 1;
+        double[] values = refine(f, x, y, hx, hy);
+        double sx = hx / refinement;
+        double sy = hy / refinement;
+        double[] segments = new double[16];
+        int length = 0;
+        double[] corner = new double[4];
+        for (int j = 0; j < refinement; j++) {
+            for (int i = 0; i < refinement; i++) {
+                corner[0] = values[j * n + i];
+                corner[1] = values[j * n + i + 1];
+                corner[2] = values[(j + 1) * n + i + 1];
+                corner[3] = values[(j + 1) * n + i];
+                if (!crosses(values, i, j, n)) continue;
+                int index = (corner[0] > 0 ? 1 : 0) | (corner[1] > 0 ? 2 : 0) | (corner[2] > 0 ? 4 : 0) | (corner[3] > 0 ? 8 : 0);
+                double cx = x + i * sx;
+                double cy = y + j * sy;
+                int[] edges = EDGES[index];
+                if (edges == null) {
+                    // saddle: the value at the center decides which corners are connected
+                    boolean center = f.calculate(cx + sx / 2, cy + sy / 2) > 0;
+                    edges = (index == 5) == center ? new int[] {0, 1, 2, 3} : new int[] {3, 0, 1, 2};
+                }
+                if (length + 2 * edges.length > segments.length) segments = Arrays.copyOf(segments, 2 * segments.length);
+                for (int e : edges) {
+                    // endpoints of edge e: corners e and (e + 1) % 4
+                    int a = e;
+                    int b = (e + 1) % 4;
+                    double t = corner[a] / (corner[a] - corner[b]);
+                    segments[length++] = cx + sx * (cornerX(a) + t * (cornerX(b) - cornerX(a)));
+                    segments[length++] = cy + sy * (cornerY(a) + t * (cornerY(b) - cornerY(a)));
+                }
+            }
+        }
+        return Arrays.copyOf(segments, length);
+    }
+
+    private static int cornerX(int corner) {
+        return corner == 1 || corner == 2 ? 1 : 0;
+    }
+
+    private static int cornerY(int corner) {
+        return corner >= 2 ? 1 : 0;
+    }
+
+    private double[] refinedSeed(BinaryFunction f1, BinaryFunction f2, double x, double y, double hx, double hy) {
+        int n = refinement + 1;
+        double[] v1 = refine(f1, x, y, hx, hy);
+        double[] v2 = refine(f2, x, y, hx, hy);
+        for (int j = 0; j < refinement; j++) {
+            for (int i = 0; i < refinement; i++) {
+                if (crosses(v1, i, j, n) && crosses(v2, i, j, n)) {
+                    return new double[] {x + hx * (i + 0.5) / refinement, y + hy * (j + 0.5) / refinement};
+                }
+            }
+        }
+        return null;
+    }
+}
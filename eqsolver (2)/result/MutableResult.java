@@ -0,0 +1,71 @@
+package ru.rosroble.eqsolver.result;
+
+/**
+ * A reusable holder for the result of solving a scalar equation. Solvers write into it instead of
+ * allocating a {@link Result}, so a loop that reuses one holder produces no garbage.
+ * Divergence is reported through the status rather than an exception, and so is a solve stopped
+ * by {@link ru.rosroble.eqsolver.limits.LimitedSolver}, which keeps the best approximation found.
+ */
+public class MutableResult {
+    private ResultStatus status;
+    private double solution = Double.NaN;
+    private int iterations;
+    private double error = Double.NaN;
+
+    public void found(double solution, int iterations, double error) {
+        this.status = ResultStatus.SOLUTION_FOUND;
+        this.solution = solution;
+        this.iterations = iterations;
+        this.error = error;
+    }
+
+    public void diverged(int iterations) {
+        this.status = ResultStatus.DIVERGENCE;
+        this.solution = Double.NaN;
+        this.iterations = iterations;
+        this.error = Double.NaN;
+    }
+
+    /**
+     * @param reason why the solve was stopped (CANCELLED, BUDGET_EXHAUSTED or DEADLINE_EXCEEDED)
+     * @param best the best approximation so far or NaN if there is none
+     * @param error its error or NaN if it is unknown
+     */
+    public void stopped(ResultStatus reason, double best, int iterations, double error) {
+        this.status = reason;
+        this.solution = best;
+        this.iterations = iterations;
+        this.error = error;
+    }
+
+    public ResultStatus getStatus() {
+        return status;
+    }
+
+    public double getSolution() {
+        return solution;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * @return a copy of the current state as an immutable {@link Result}
+     */
+    public Result toResult() {
+        if (status == ResultStatus.SOLUTION_FOUND || (status != ResultStatus.DIVERGENCE && !Double.isNaN(solution))) {
+            return new Result(status, new double[] {solution}, iterations, new double[] {error});
+        }
+        return new Result(status, null, iterations, null);
+    }
+
+    @Override
+    public String toString() {
+        return toResult().toString();
+    }
+}
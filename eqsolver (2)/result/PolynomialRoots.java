@@ -0,0 +1,98 @@
+package ru.rosroble.eqsolver.result;
+
+import java.util.Arrays;
+
+/**
+ * All complex roots of a polynomial: root k is re[k] + i * im[k].
+ */
+public class PolynomialRoots {
+    private final double[] re;
+    private final double[] im;
+    private final double[] error;
+    private final int iterations;
+    private final ResultStatus status;
+
+    public PolynomialRoots(ResultStatus status, double[] re, double[] im, double[] error, int iterations) {
+        this.status = status;
+        this.re = re;
+        this.im = im;
+        this.error = error;
+        this.iterations = iterations;
+    }
+
+    public ResultStatus getStatus() {
+        return status;
+    }
+
+    public int size() {
+        return re.length;
+    }
+
+    public double getRe(int k) {
+        return re[k];
+    }
+
+    public double getIm(int k) {
+        return im[k];
+    }
+
+    /**
+     * @param k root number
+     * @return magnitude of the last correction of the root
+     */
+    public double getError(int k) {
+        return error[k];
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @param k root number
+     * @param tolerance imaginary parts up to tolerance * (1 + |re|) are considered rounding errors
+     * @return true if root k is real
+     */
+    public boolean isReal(int k, double tolerance) {
+        return Math.abs(im[k]) <= tolerance * (1 + Math.abs(re[k]));
+    }
+
+    /**
+     * @param tolerance see {@link #isReal(int, double)}
+     * @return real roots in ascending order
+     */
+    public double[] realRoots(double tolerance) {
+        return Arrays.stream(realIndices(tolerance)).mapToDouble(k -> re[k]).toArray();
+    }
+
+    /**
+     * @param tolerance see {@link #isReal(int, double)}
+     * @return numbers of real roots in ascending order of the root
+     */
+    public int[] realIndices(double tolerance) {
+        int[] indices = new int[re.length];
+        int count = 0;
+        for (int k = 0; k < re.length; k++) {
+            if (isReal(k, tolerance)) indices[count++] = k;
+        }
+        return Arrays.stream(indices, 0, count).boxed()
+                .sorted((i, j) -> Double.compare(re[i], re[j]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String toString() {
+        if (status == ResultStatus.DIVERGENCE) {
+            return "Divergence: no solution found within required accuracy";
+        }
+        StringBuilder sb = new StringBuilder("Found roots:\n");
+        for (int k = 0; k < re.length; k++) {
+            sb.append(re[k]);
+            if (im[k] != 0) sb.append(im[k] < 0 ? " - " : " + ").append(Math.abs(im[k])).append('i');
+            sb.append('\n');
+        }
+        return sb.append("Iterations made: ").append(iterations).append('\n')
+                .append("Error: ").append(Arrays.toString(error)).append('\n')
+                .append("---------------------").toString();
+    }
+}
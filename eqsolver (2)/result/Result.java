@@ -36,6 +36,12 @@ public class Result {
         if (status == ResultStatus.DIVERGENCE) {
             return "Divergence: no solution found within required accuracy";
         }
+        if (status != ResultStatus.SOLUTION_FOUND) {
+            if (solution == null) return "Stopped (" + status + ") before any evaluation";
+            return "Stopped (" + status + "), best approximation: " + Arrays.toString(solution) + "\n" +
+                    "Error: " + Arrays.toString(error) + "\n" +
+                    "---------------------";
+        }
         return "Found a solution: " + Arrays.toString(solution) + "\n" +
                 "Iterations made: " + iterations + "\n" +
                 "Error: " + Arrays.toString(error) + "\n" +
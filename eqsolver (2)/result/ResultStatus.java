@@ -1,5 +1,7 @@
 package ru.rosroble.eqsolver.result;
 
 public enum ResultStatus {
-    SOLUTION_FOUND, DIVERGENCE
+    SOLUTION_FOUND, DIVERGENCE,
+    // the solve was stopped early, see ru.rosroble.eqsolver.limits.SolveLimits
+    CANCELLED, BUDGET_EXHAUSTED, DEADLINE_EXCEEDED
 }
@@ -0,0 +1,182 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.functions.Expression;
+import ru.rosroble.eqsolver.functions.Polynomial;
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.PolynomialRoots;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+import java.util.Arrays;
+
+/**
+ * Aberth-Ehrlich method: refines approximations of all n roots of a polynomial simultaneously.
+ * Every approximation makes a Newton step corrected by the repulsion from the other approximations,
+ * z_k -= w / (1 - w * sum_{j != k} 1 / (z_k - z_j)), w = p(z_k) / p'(z_k),
+ * which converges cubically to simple roots from starting points on a circle and needs no intervals.
+ * Complex numbers are kept as pairs of doubles, so an iteration allocates nothing.
+ */
+public class AberthSolver implements EquationSolver {
+    // rotation of the starting points, breaks the symmetry with respect to the real axis
+    private static final double START_ANGLE = 0.4;
+    // relative rounding error of Horner's scheme in complex arithmetic, in units of the evaluated bound
+    private static final double ROUNDING = 8 * Math.ulp(1.0);
+    private final double eps;
+
+    public AberthSolver(double eps) {
+        this.eps = eps;
+    }
+
+    /**
+     * Finds all complex roots of a polynomial.
+     * @param p a polynomial of degree at least 1
+     * @return the roots; an approximation stops when its correction is smaller than eps * (1 + |z|)
+     * or when p(z) vanishes up to rounding errors
+     */
+    public PolynomialRoots solve(Polynomial p) {
+        int degree = p.degree();
+        if (degree < 1) throw new IllegalArgumentException("Polynomial degree should be at least 1");
+        // zero roots are split off exactly
+        int zeros = 0;
+        while (p.coefficient(zeros) == 0) zeros++;
+        int n = degree - zeros;
+        double[] c = new double[n + 1];
+        for (int i = 0; i <= n; i++) {
+            c[i] = p.coefficient(i + zeros) / p.coefficient(degree);
+        }
+        double[] re = new double[degree];
+        double[] im = new double[degree];
+        double[] error = new double[degree];
+        boolean[] done = new boolean[n];
+        double radius = n > 0 ? Math.pow(Math.abs(c[0]), 1.0 / n) : 0;
+        for (int k = 0; k < n; k++) {
+            double angle = 2 * Math.PI * k / n + START_ANGLE;
+            re[k] = radius * Math.cos(angle);
+            im[k] = radius * Math.sin(angle);
+        }
+        int iter = 0;
+        int active = n;
+        while (active > 0 && iter < EquationSolverRunner.MAX_ITERATION) {
+            for (int k = 0; k < n; k++) {
+                if (done[k]) continue;
+                double zr = re[k];
+                double zi = im[k];
+                // Horner's scheme for p(z) and p'(z); bound estimates the rounding error of p(z)
+                double pr = c[n];
+                double pi = 0;
+                double dr = 0;
+                double di = 0;
+                double modulus = Math.hypot(zr, zi);
+                double bound = Math.abs(c[n]);
+                for (int i = n - 1; i >= 0; i--) {
+                    bound = bound * modulus + Math.abs(c[i]);
+                    double t = dr * zr - di * zi + pr;
+                    di = dr * zi + di * zr + pi;
+                    dr = t;
+                    t = pr * zr - pi * zi + c[i];
+                    pi = pr * zi + pi * zr;
+                    pr = t;
+                }
+                // w = p / p'
+                double den = dr * dr + di * di;
+                double wr = (pr * dr + pi * di) / den;
+                double wi = (pi * dr - pr * di) / den;
+                // p(z) is zero up to rounding: z cannot be improved (happens at multiple and clustered roots),
+                // the Newton correction estimates the error
+                if (Math.hypot(pr, pi) <= ROUNDING * bound) {
+                    error[k] = den == 0 ? 0 : Math.hypot(wr, wi);
+                    done[k] = true;
+                    active--;
+                    continue;
+                }
+                // s = sum 1 / (z_k - z_j)
+                double sr = 0;
+                double si = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j == k) continue;
+                    double ur = zr - re[j];
+                    double ui = zi - im[j];
+                    double norm = ur * ur + ui * ui;
+                    sr += ur / norm;
+                    si -= ui / norm;
+                }
+                // offset = w / (1 - w * s)
+                double qr = 1 - (wr * sr - wi * si);
+                double qi = -(wr * si + wi * sr);
+                double q = qr * qr + qi * qi;
+                double or = (wr * qr + wi * qi) / q;
+                double oi = (wi * qr - wr * qi) / q;
+                if (den == 0 || !Double.isFinite(or) || !Double.isFinite(oi)) {
+                    // p'(z) = 0: fall back to a small perturbation
+                    or = eps * (1 + Math.hypot(zr, zi));
+                    oi = or;
+                }
+                re[k] = zr - or;
+                im[k] = zi - oi;
+                error[k] = Math.hypot(or, oi);
+                if (error[k] < eps * (1 + Math.hypot(re[k], im[k]))) {
+                    done[k] = true;
+                    active--;
+                }
+            }
+            iter++;
+        }
+        // exactly zero roots stay in the last positions
+        ResultStatus status = active == 0 ? ResultStatus.SOLUTION_FOUND : ResultStatus.DIVERGENCE;
+        return new PolynomialRoots(status, re, im, error, iter);
+    }
+
+    /**
+     * Finds all real roots of a polynomial on [a, b] at once.
+     * @param f a {@link Polynomial} or an {@link Expression} that expands into one (see {@link #asPolynomial})
+     * @return the roots in ascending order with their errors, or DIVERGENCE if the method did not converge,
+     * f is not a polynomial of degree at least 1 or no real root lies on [a, b]
+     */
+    @Override
+    public Result solve(Function f, double a, double b) {
+        Polynomial p = asPolynomial(f);
+        if (p == null || p.degree() < 1) return new Result(ResultStatus.DIVERGENCE, null, 0, null);
+        PolynomialRoots roots = solve(p);
+        if (roots.getStatus() == ResultStatus.DIVERGENCE) {
+            return new Result(ResultStatus.DIVERGENCE, null, roots.getIterations(), null);
+        }
+        double left = Math.min(a, b);
+        double right = Math.max(a, b);
+        int[] real = Arrays.stream(roots.realIndices(Math.sqrt(eps)))
+                .filter(k -> roots.getRe(k) >= left && roots.getRe(k) <= right)
+                .toArray();
+        if (real.length == 0) return new Result(ResultStatus.DIVERGENCE, null, roots.getIterations(), null);
+        double[] solution = new double[real.length];
+        double[] error = new double[real.length];
+        for (int i = 0; i < real.length; i++) {
+            solution[i] = roots.getRe(real[i]);
+            error[i] = roots.getError(real[i]);
+        }
+        return new Result(ResultStatus.SOLUTION_FOUND, solution, roots.getIterations(), error);
+    }
+
+    /**
+     * Writes the smallest real root on [a, b] into the holder; use {@link #solve(Function, double, double)}
+     * to get every root. Without a real root on [a, b] the holder gets DIVERGENCE status.
+     */
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        Result result = solve(f, a, b);
+        if (result.getStatus() == ResultStatus.SOLUTION_FOUND) {
+            out.found(result.getSolution()[0], result.getIterations(), result.getError()[0]);
+        } else {
+            out.diverged(result.getIterations());
+        }
+    }
+
+    /**
+     * @return f as a polynomial, or null if f is neither a {@link Polynomial} nor a polynomial {@link Expression}
+     */
+    public static Polynomial asPolynomial(Function f) {
+        if (f instanceof Polynomial) return (Polynomial) f;
+        if (f instanceof Expression) return ((Expression) f).toPolynomial();
+        return null;
+    }
+}
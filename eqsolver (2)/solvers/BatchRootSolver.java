@@ -0,0 +1,115 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.interfaces.BatchFunction;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+/**
+ * Solves many equations of one {@link BatchFunction} family at once with Newton's method safeguarded by bisection
+ * (the same iteration as {@link HybridNewtonSolver}). Equations are processed in chunks of {@link #CHUNK}:
+ * all equations of a chunk make a step in lockstep over primitive arrays, converged ones are frozen,
+ * and the chunk is finished when every equation in it has converged.
+ * Work arrays are allocated once per solver; an instance is not thread-safe.
+ */
+public class BatchRootSolver {
+    public static final int CHUNK = 1024;
+    private final double eps;
+    private final double[] x = new double[CHUNK];
+    private final double[] value = new double[CHUNK];
+    private final double[] derivative = new double[CHUNK];
+    private final double[] low = new double[CHUNK];
+    private final double[] high = new double[CHUNK];
+    private final double[] step = new double[CHUNK];
+    private final double[] previousStep = new double[CHUNK];
+    private final boolean[] done = new boolean[CHUNK];
+
+    public BatchRootSolver(double eps) {
+        this.eps = eps;
+    }
+
+    /**
+     * Solves f_k(x) = 0 on [a[k], b[k]] for k = 0, ..., a.length - 1.
+     * Equations without a sign change on their interval get DIVERGENCE status and a NaN root.
+     * @param f the family of equations
+     * @param a left ends of the intervals
+     * @param b right ends of the intervals
+     * @param roots receives the roots
+     * @param status receives the status of every equation
+     * @param iterations receives the number of iterations for every equation, may be null
+     */
+    public void solve(BatchFunction f, double[] a, double[] b, double[] roots, ResultStatus[] status, int[] iterations) {
+        int n = a.length;
+        for (int offset = 0; offset < n; offset += CHUNK) {
+            solveChunk(f, offset, Math.min(CHUNK, n - offset), a, b, roots, status, iterations);
+        }
+    }
+
+    private void solveChunk(BatchFunction f, int offset, int length, double[] a, double[] b,
+                            double[] roots, ResultStatus[] status, int[] iterations) {
+        // orient every bracket so that f(low) < 0 < f(high)
+        System.arraycopy(a, offset, x, 0, length);
+        f.calculate(offset, length, x, value, derivative);
+        System.arraycopy(value, 0, low, 0, length);
+        System.arraycopy(b, offset, x, 0, length);
+        f.calculate(offset, length, x, value, derivative);
+        int active = 0;
+        for (int k = 0; k < length; k++) {
+            double fa = low[k];
+            double fb = value[k];
+            double ak = a[offset + k];
+            double bk = b[offset + k];
+            done[k] = fa * fb >= 0;
+            if (done[k]) {
+                boolean atEnd = fa == 0 || fb == 0;
+                roots[offset + k] = fa == 0 ? ak : fb == 0 ? bk : Double.NaN;
+                status[offset + k] = atEnd ? ResultStatus.SOLUTION_FOUND : ResultStatus.DIVERGENCE;
+                if (iterations != null) iterations[offset + k] = 0;
+            } else {
+                active++;
+            }
+            low[k] = fa < 0 ? ak : bk;
+            high[k] = fa < 0 ? bk : ak;
+            x[k] = ak + (bk - ak) / 2;
+            step[k] = Math.abs(bk - ak);
+            previousStep[k] = step[k];
+        }
+        f.calculate(offset, length, x, value, derivative);
+        int iter = 0;
+        while (active > 0 && iter < EquationSolverRunner.MAX_ITERATION) {
+            for (int k = 0; k < length; k++) {
+                double fx = value[k];
+                double dfx = derivative[k];
+                double xk = x[k];
+                boolean outside = ((xk - high[k]) * dfx - fx) * ((xk - low[k]) * dfx - fx) >= 0;
+                boolean bisect = outside || Math.abs(2 * fx) > Math.abs(previousStep[k] * dfx);
+                double s = bisect ? (high[k] - low[k]) / 2 : fx / dfx;
+                double next = bisect ? low[k] + s : xk - s;
+                boolean frozen = done[k];
+                previousStep[k] = frozen ? previousStep[k] : step[k];
+                step[k] = frozen ? step[k] : s;
+                x[k] = frozen ? xk : next;
+            }
+            f.calculate(offset, length, x, value, derivative);
+            for (int k = 0; k < length; k++) {
+                if (done[k]) continue;
+                if (value[k] == 0 || Math.abs(step[k]) < eps) {
+                    done[k] = true;
+                    active--;
+                    roots[offset + k] = x[k];
+                    status[offset + k] = ResultStatus.SOLUTION_FOUND;
+                    if (iterations != null) iterations[offset + k] = iter;
+                } else if (value[k] < 0) {
+                    low[k] = x[k];
+                } else {
+                    high[k] = x[k];
+                }
+            }
+            iter++;
+        }
+        for (int k = 0; k < length; k++) {
+            if (done[k]) continue;
+            roots[offset + k] = Double.NaN;
+            status[offset + k] = ResultStatus.DIVERGENCE;
+            if (iterations != null) iterations[offset + k] = EquationSolverRunner.MAX_ITERATION;
+        }
+    }
+}
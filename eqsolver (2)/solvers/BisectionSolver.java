@@ -0,0 +1,53 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+
+/**
+ * Bisection method. Halves the bracket [a, b] until it is shorter than 2 * eps,
+ * so it always converges in about log2((b - a) / eps) evaluations.
+ */
+public class BisectionSolver implements EquationSolver {
+    private final double eps;
+
+    public BisectionSolver(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public Result solve(Function f, double a, double b) {
+        MutableResult out = new MutableResult();
+        solve(f, a, b, out);
+        return out.toResult();
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        double fa = f.calculate(a);
+        double fb = f.calculate(b);
+        if (fa == 0 || fb == 0) {
+            out.found(fa == 0 ? a : b, 0, 0);
+            return;
+        }
+        if (fa * fb > 0) throw new IllegalArgumentException("f(a) * f(b) should be < 0");
+        int iter = 0;
+        while (iter < EquationSolverRunner.MAX_ITERATION) {
+            double mid = a + (b - a) / 2;
+            double fm = f.calculate(mid);
+            if (fm == 0 || (b - a) / 2 < eps) {
+                out.found(mid, iter, fm == 0 ? 0 : Math.abs(b - a) / 2);
+                return;
+            }
+            if (fa * fm < 0) {
+                b = mid;
+            } else {
+                a = mid;
+                fa = fm;
+            }
+            iter++;
+        }
+        out.diverged(EquationSolverRunner.MAX_ITERATION);
+    }
+}
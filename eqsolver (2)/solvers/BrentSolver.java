@@ -0,0 +1,99 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+
+/**
+ * Brent's method. Combines inverse quadratic interpolation and secant steps with bisection:
+ * an interpolation step is accepted only while it stays inside the bracket and shrinks it fast enough,
+ * so the method converges superlinearly on smooth functions and is never slower than bisection by more than a constant.
+ */
+public class BrentSolver implements EquationSolver {
+    private final double eps;
+
+    public BrentSolver(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public Result solve(Function f, double a, double b) {
+        MutableResult out = new MutableResult();
+        solve(f, a, b, out);
+        return out.toResult();
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        double fa = f.calculate(a);
+        double fb = f.calculate(b);
+        if (fa == 0 || fb == 0) {
+            out.found(fa == 0 ? a : b, 0, 0);
+            return;
+        }
+        if (fa * fb > 0) throw new IllegalArgumentException("f(a) * f(b) should be < 0");
+        // b is the best approximation, a is the previous one, c is the other end of the bracket [b, c]
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+        int iter = 0;
+        while (iter < EquationSolverRunner.MAX_ITERATION) {
+            if (fb * fc > 0) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tolerance = 2 * Math.ulp(b) + eps / 2;
+            double m = (c - b) / 2;
+            if (Math.abs(m) <= tolerance || fb == 0) {
+                out.found(b, iter, fb == 0 ? 0 : Math.abs(m));
+                return;
+            }
+            if (Math.abs(e) < tolerance || Math.abs(fa) <= Math.abs(fb)) {
+                d = m;
+                e = m;
+            } else {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    // secant step
+                    p = 2 * m * s;
+                    q = 1 - s;
+                } else {
+                    // inverse quadratic interpolation
+                    double r = fb / fc;
+                    double t = fa / fc;
+                    p = s * (2 * m * t * (t - r) - (b - a) * (r - 1));
+                    q = (t - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) q = -q;
+                else p = -p;
+                if (2 * p < Math.min(3 * m * q - Math.abs(tolerance * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = m;
+                    e = m;
+                }
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tolerance ? d : Math.copySign(tolerance, m);
+            fb = f.calculate(b);
+            iter++;
+        }
+        out.diverged(EquationSolverRunner.MAX_ITERATION);
+    }
+}
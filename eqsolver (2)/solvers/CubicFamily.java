@@ -0,0 +1,37 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.interfaces.BatchFunction;
+
+/**
+ * Cubic equations a3[k] x^3 + a2[k] x^2 + a1[k] x + a0[k] = 0 with coefficients stored as a structure of arrays.
+ */
+public class CubicFamily implements BatchFunction {
+    private final double[] a3;
+    private final double[] a2;
+    private final double[] a1;
+    private final double[] a0;
+
+    public CubicFamily(double[] a3, double[] a2, double[] a1, double[] a0) {
+        if (a2.length != a3.length || a1.length != a3.length || a0.length != a3.length) {
+            throw new IllegalArgumentException("Coefficient arrays should have equal length");
+        }
+        this.a3 = a3;
+        this.a2 = a2;
+        this.a1 = a1;
+        this.a0 = a0;
+    }
+
+    public int size() {
+        return a3.length;
+    }
+
+    @Override
+    public void calculate(int offset, int length, double[] x, double[] value, double[] derivative) {
+        for (int k = 0; k < length; k++) {
+            int i = offset + k;
+            double t = x[k];
+            value[k] = ((a3[i] * t + a2[i]) * t + a1[i]) * t + a0[i];
+            derivative[k] = (3 * a3[i] * t + 2 * a2[i]) * t + a1[i];
+        }
+    }
+}
@@ -1,19 +1,45 @@
 package ru.rosroble.eqsolver.solvers;
 
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.functions.Expression;
+import ru.rosroble.eqsolver.functions.ExpressionParser;
+import ru.rosroble.eqsolver.functions.Polynomial;
 import ru.rosroble.eqsolver.result.Result;
 import ru.rosroble.eqsolver.result.ResultStatus;
 import ru.rosroble.eqsolver.exceptions.DivergenceException;
 import ru.rosroble.eqsolver.interfaces.BinaryFunction;
+import ru.rosroble.eqsolver.interfaces.DifferentiableBinaryFunction;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+import ru.rosroble.eqsolver.interfaces.DifferentiableVectorFunction;
 import ru.rosroble.eqsolver.interfaces.Function;
 import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.VectorFunction;
+import ru.rosroble.eqsolver.limits.LimitedSolver;
+import ru.rosroble.eqsolver.limits.SolveLimits;
+import ru.rosroble.eqsolver.metrics.InstrumentedSolver;
+import ru.rosroble.eqsolver.metrics.SolverMetrics;
 import ru.rosroble.eqsolver.plot.GraphFrame;
+import ru.rosroble.eqsolver.plot.ImplicitCurveTracer;
 
 import java.io.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class EquationSolverRunner {
 
     public static final int MAX_ITERATION = 10000;
     public static final double delta = 1e-6;
+    // index of the solver used when no valid choice is given in a file
+    public static final int DEFAULT_SOLVER = 6;
+    // index of the Aberth-Ehrlich method, which accepts only polynomials
+    public static final int ABERTH_SOLVER = 8;
+    // system property that turns on the metrics report in System.err at the end of a run
+    public static final String METRICS_PROPERTY = "eqsolver.metrics";
+    // system property with a timeout of the equation solve in milliseconds
+    public static final String TIMEOUT_PROPERTY = "eqsolver.timeout";
+    private static final SolverMetrics DERIVATIVES = SolverMetrics.forName("Derivatives");
     private double eps;
     private double a;
     private double b;
@@ -37,11 +63,19 @@ public class EquationSolverRunner {
             Result equationSolution = solvers[solverIndex].solve(functions[functionIndex], a, b);
             writer.println(equationSolution);
             new GraphFrame("Equation plot").graph(a, b, functions[functionIndex]);
-            BinaryFunction f1 = (x, y) -> (x*x + y*y - 4);
-            BinaryFunction f2 = (x, y) -> (Math.sin(x) - y);
+            DifferentiableBinaryFunction f1 = (x, y) -> x.mul(x).add(y.mul(y)).sub(4);
+            DifferentiableBinaryFunction f2 = (x, y) -> x.sin().sub(y);
             Result systemSolution = newtonSystem(f1 ,f2, 2, 1);
             writer.println(systemSolution);
-            new GraphFrame("System plot").system(systemSolution.getSolution()[0] - 3, systemSolution.getSolution()[0] + 3);
+            double x = systemSolution.getSolution()[0];
+            double y = systemSolution.getSolution()[1];
+            List<double[]> intersections = systemSolutions(f1, f2, x - 3, x + 3, y - 3, y + 3);
+            writer.println("Solutions in [" + (x - 3) + ", " + (x + 3) + "] x [" + (y - 3) + ", " + (y + 3) + "]:");
+            for (double[] point : intersections) {
+                writer.println(Arrays.toString(point));
+            }
+            new GraphFrame("System plot").system(x - 3, x + 3, y - 3, y + 3, intersections, f1, f2);
+            if (Boolean.getBoolean(METRICS_PROPERTY)) System.err.print(SolverMetrics.report());
             writer.close();
             reader.close();
             System.out.println("Finished executing.");
@@ -68,6 +102,7 @@ public class EquationSolverRunner {
         printIfConsole("Choose an equation to solve: ");
         printStringArray(functionDesc);
         functionIndex = choice(functions);
+        if (functionIndex == functions.length - 1) functionIndex = readCustomFunction();
         if (functionIndex == -1) return;
 
 
@@ -80,7 +115,11 @@ public class EquationSolverRunner {
         printIfConsole("Choose solve method: ");
         printStringArray(solversDesc);
         solverIndex = choice(solvers);
-        if (solverIndex == -1) return;
+        if (solverIndex == -1) solverIndex = DEFAULT_SOLVER;
+        if (solverIndex == ABERTH_SOLVER && AberthSolver.asPolynomial(functions[functionIndex]) == null) {
+            System.out.println("Aberth-Ehrlich method needs a polynomial equation, using method " + (DEFAULT_SOLVER + 1) + ".");
+            solverIndex = DEFAULT_SOLVER;
+        }
     }
 
     /**
@@ -129,14 +168,38 @@ public class EquationSolverRunner {
      * Creates a basic set of equations to solve and initializes function array and function descriptions
      */
     private void initFunctions() {
-        Function f1 = x -> (Math.pow(x, 3) - 4.5 * Math.pow(x, 2) - 9.21 * x - 0.383);
-        Function f2 = x -> (Math.pow(x, 3) - x + 4);
-        Function f3 = x -> (Math.sin(x) + 0.1);
+        Polynomial f1 = new Polynomial(-0.383, -9.21, -4.5, 1);
+        Polynomial f2 = new Polynomial(4, -1, 0, 1);
+        DifferentiableFunction f3 = x -> x.sin().add(0.1);
         String f1s = "1. x^3 - 4.5x^2 - 9.21x - 0.383";
         String f2s = "2. x^3 - x + 4";
         String f3s = "3. sin(x) + 0.1";
-        functions = new Function[]{f1, f2, f3};
-        functionDesc = new String[]{f1s, f2s, f3s};
+        String f4s = "4. Enter your own equation";
+        // the last entry is filled by readCustomFunction
+        functions = new Function[]{f1, f2, f3, null};
+        functionDesc = new String[]{f1s, f2s, f3s, f4s};
+    }
+
+    /**
+     * User-interactive method reading an equation f(x) = 0 as an expression of x, e.g. x^3 - x + 4.
+     * @return index of the compiled equation in the function array or -1 if a file contains an invalid expression
+     * @throws IOException
+     */
+    private int readCustomFunction() throws IOException {
+        printIfConsole("Enter f(x) (operators + - * / ^, functions sin, cos, tan, exp, ln, sqrt, abs): ");
+        while (true) {
+            try {
+                Expression expression = ExpressionParser.parse(reader.readLine());
+                if (expression.usesY()) throw new IllegalArgumentException("Equation should depend on x only");
+                // a polynomial is kept as such, so that it is evaluated by Horner's scheme and Aberth's method accepts it
+                Polynomial polynomial = expression.toPolynomial();
+                functions[functions.length - 1] = polynomial != null ? polynomial : expression;
+                return functions.length - 1;
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                if (isFile) return -1;
+            }
+        }
     }
 
 
@@ -145,12 +208,19 @@ public class EquationSolverRunner {
      */
     private void initSolvers() {
          EquationSolver newton = (f, a, b) -> {
-            if (f.calculate(a) * f.calculate(b) >= 0) throw new IllegalArgumentException("f(a) * f(b) should be < 0");
-            double x0 = f.calculate(a) * derivativeAtPoint(f, 2, a) > 0 ? a : b;
+            double fa = f.calculate(a);
+            if (fa * f.calculate(b) >= 0) throw new IllegalArgumentException("f(a) * f(b) should be < 0");
+            double x0 = fa * derivativeAtPoint(f, 2, a) > 0 ? a : b;
             int iter = 0;
             double xn = x0;
             while (iter < MAX_ITERATION) {
-                double next = xn - f.calculate(xn) / derivativeAtPoint(f, 1, xn);
+                double next;
+                if (f instanceof DifferentiableFunction) {
+                    Dual y = ((DifferentiableFunction) f).calculate(Dual.variable(xn));
+                    next = xn - y.value() / y.derivative();
+                } else {
+                    next = xn - f.calculate(xn) / derivativeAtPoint(f, 1, xn);
+                }
                 if (Math.abs(next - xn) < eps) {
                     return new Result(ResultStatus.SOLUTION_FOUND,
                             new double[] {next},
@@ -169,8 +239,18 @@ public class EquationSolverRunner {
             int iter = 0;
             double xn = x0;
             while (iter < MAX_ITERATION) {
-                if (Math.abs(derivativeAtPoint(phi, 1, xn)) >= 1) throw new DivergenceException("f'(xn) > 1 => cannot converge");
-                double next = phi.calculate(xn);
+                double next;
+                double phiDerivative;
+                if (f instanceof DifferentiableFunction) {
+                    // phi = x - f / f', so phi' = f * f'' / f'^2
+                    Dual y = ((DifferentiableFunction) f).calculate(Dual.variable(xn));
+                    next = xn - y.value() / y.derivative();
+                    phiDerivative = y.value() * y.secondDerivative() / (y.derivative() * y.derivative());
+                } else {
+                    next = phi.calculate(xn);
+                    phiDerivative = derivativeAtPoint(phi, 1, xn);
+                }
+                if (Math.abs(phiDerivative) >= 1) throw new DivergenceException("f'(xn) > 1 => cannot converge");
                 if (Math.abs(next - xn) < eps) {
                     return new Result(ResultStatus.SOLUTION_FOUND,
                             new double[] {next},
@@ -183,8 +263,22 @@ public class EquationSolverRunner {
              return new Result(ResultStatus.DIVERGENCE, null, MAX_ITERATION, null);
         };
 
-         solvers = new EquationSolver[] {newton, fixedPointIteration};
-         solversDesc = new String[] {"1. Newton's method.", "2. Fixed-point iteration method."};
+         solvers = new EquationSolver[] {newton, fixedPointIteration, new BisectionSolver(eps), new SecantSolver(eps),
+                 new IllinoisSolver(eps), new BrentSolver(eps), new HybridNewtonSolver(eps), new RootScanner(eps),
+                 new AberthSolver(eps)};
+         solversDesc = new String[] {"1. Newton's method.", "2. Fixed-point iteration method.", "3. Bisection method.",
+                 "4. Secant method.", "5. Illinois (modified regula falsi) method.", "6. Brent's method.",
+                 "7. Newton's method with bisection fallback (default).", "8. All roots on the interval.",
+                 "9. All roots of a polynomial (Aberth-Ehrlich method)."};
+         // metrics are named after the description without its number; they wrap the limits,
+         // so a stopped solve is recorded with its reason
+         Long timeout = Long.getLong(TIMEOUT_PROPERTY);
+         for (int i = 0; i < solvers.length; i++) {
+             if (timeout != null) {
+                 solvers[i] = new LimitedSolver(solvers[i], new SolveLimits(Duration.ofMillis(timeout), 0, null));
+             }
+             solvers[i] = new InstrumentedSolver(solversDesc[i].substring(solversDesc[i].indexOf(' ') + 1), solvers[i]);
+         }
     }
 
     /**
@@ -220,7 +314,9 @@ public class EquationSolverRunner {
     }
 
     /**
-     * A method that calculates the derivative of a function in a certain point
+     * A method that calculates the derivative of a function in a certain point.
+     * First and second derivatives of a {@link DifferentiableFunction} are exact and cost one evaluation,
+     * otherwise forward differences are used.
      * @param f a function the derivative is calculated for
      * @param n a derivative order
      * @param x a point the derivative is calculated in
@@ -228,21 +324,40 @@ public class EquationSolverRunner {
      */
     private double derivativeAtPoint(Function f, int n, double x) {
         if (n <= 0) throw new IllegalArgumentException("n should be at least 1");
+        DERIVATIVES.countDerivative();
+        if (n <= 2 && f instanceof DifferentiableFunction) {
+            Dual y = ((DifferentiableFunction) f).calculate(Dual.variable(x));
+            return n == 1 ? y.derivative() : y.secondDerivative();
+        }
         if (n == 1) return (f.calculate(x + delta) - f.calculate(x)) / delta;
         return (derivativeAtPoint(f, n - 1, x + delta) - derivativeAtPoint(f, n - 1, x)) / delta;
     }
 
 
     /**
-     * Returns a derivative of a binary function given with respect to chosen variable
+     * Returns a derivative of a binary function given with respect to chosen variable.
+     * Partial derivatives of a {@link DifferentiableBinaryFunction} are exact, otherwise forward differences are used.
      * @param f initial function
      * @param withRespectTo 0 for dx and 1 for dy
      * @return derivative function
      */
     private BinaryFunction derivative(BinaryFunction f, int withRespectTo) {
-        if (withRespectTo == 0) return (x, y) -> ((f.calculate(x + delta, y) - f.calculate(x, y)) / delta);
-        if (withRespectTo == 1) return (x, y) -> ((f.calculate(x, y + delta) - f.calculate(x, y)) / delta);
-        throw new IllegalArgumentException("2nd arg should be 0 or 1");
+        BinaryFunction d;
+        if (f instanceof DifferentiableBinaryFunction && (withRespectTo == 0 || withRespectTo == 1)) {
+            DifferentiableBinaryFunction df = (DifferentiableBinaryFunction) f;
+            if (withRespectTo == 0) d = (x, y) -> df.calculate(Dual.variable(x), Dual.constant(y)).derivative();
+            else d = (x, y) -> df.calculate(Dual.constant(x), Dual.variable(y)).derivative();
+        } else if (withRespectTo == 0) {
+            d = (x, y) -> ((f.calculate(x + delta, y) - f.calculate(x, y)) / delta);
+        } else if (withRespectTo == 1) {
+            d = (x, y) -> ((f.calculate(x, y + delta) - f.calculate(x, y)) / delta);
+        } else {
+            throw new IllegalArgumentException("2nd arg should be 0 or 1");
+        }
+        return (x, y) -> {
+            DERIVATIVES.countDerivative();
+            return d.calculate(x, y);
+        };
     }
 
     /**
@@ -274,32 +389,67 @@ public class EquationSolverRunner {
      * @throws DivergenceException thrown if the method cannot converge to a solution
      */
     private Result newtonSystem(BinaryFunction f1, BinaryFunction f2, double x0, double y0) throws DivergenceException {
-        BinaryFunction f1d_x = derivative(f1, 0);
-        BinaryFunction f1d_y = derivative(f1, 1);
-        BinaryFunction f2d_x = derivative(f2, 0);
-        BinaryFunction f2d_y = derivative(f2, 1);
-        LinearSystemSolver solver = new LinearSystemSolver(eps);
-
-        double xn = x0;
-        double yn = y0;
-        int iter = 0;
-
-        while (iter < MAX_ITERATION) {
-            double[][] matrix = new double[][]{
-                    {f1d_x.calculate(xn, yn), f1d_y.calculate(xn, yn), -f1.calculate(xn, yn)},
-                    {f2d_x.calculate(xn, yn), f2d_y.calculate(xn, yn), -f2.calculate(xn, yn)}
-            };
-            double[] solution = solver.solve(matrix);
-            double xNext = xn + solution[0];
-            double yNext = yn + solution[1];
-            if ((Math.abs(solution[0]) < eps) && (Math.abs(solution[1]) < eps)) {
-                return new Result(ResultStatus.SOLUTION_FOUND, new double[] {xNext, yNext}, iter, solution);
-            }
-            iter++;
-            xn = xNext;
-            yn = yNext;
+        return new NewtonSystemSolver(2, eps).solve(system(f1, f2), new double[] {x0, y0});
+    }
+
+    /**
+     * @return the system (f1, f2), with an exact Jacobian if both equations are differentiable
+     */
+    private VectorFunction system(BinaryFunction f1, BinaryFunction f2) {
+        if (f1 instanceof DifferentiableBinaryFunction && f2 instanceof DifferentiableBinaryFunction) {
+            return analyticSystem((DifferentiableBinaryFunction) f1, (DifferentiableBinaryFunction) f2);
+        }
+        return (x, result) -> {
+            result[0] = f1.calculate(x[0], x[1]);
+            result[1] = f2.calculate(x[0], x[1]);
+        };
+    }
+
+    /**
+     * Finds the solutions of a two equations system in a rectangle by Newton's method started from the intersections
+     * of the traced curves (see {@link ImplicitCurveTracer#seeds}) and from many points of the rectangle
+     * (see {@link MultiStartNewtonSolver}).
+     * @param f1 first equation (f1 = 0)
+     * @param f2 second equation (f2 = 0)
+     * @return distinct solutions inside the rectangle
+     */
+    private List<double[]> systemSolutions(BinaryFunction f1, BinaryFunction f2,
+                                           double x0, double x1, double y0, double y1) {
+        List<double[]> solutions = new ArrayList<>();
+        List<double[]> seeds = new ImplicitCurveTracer().seeds(f1, f2, x0, x1, y0, y1);
+        for (Result result : new MultiStartNewtonSolver(2, eps).solveAll(system(f1, f2),
+                new double[] {x0, y0}, new double[] {x1, y1}, seeds)) {
+            solutions.add(result.getSolution());
         }
-       return new Result(ResultStatus.DIVERGENCE, null, MAX_ITERATION, null);
+        return solutions;
+    }
+
+    /**
+     * Combines two differentiable equations into a system with an exact Jacobian.
+     * @param f1 first equation (f1 = 0)
+     * @param f2 second equation (f2 = 0)
+     * @return the system (f1, f2)
+     */
+    private DifferentiableVectorFunction analyticSystem(DifferentiableBinaryFunction f1, DifferentiableBinaryFunction f2) {
+        return new DifferentiableVectorFunction() {
+            @Override
+            public void calculate(double[] x, double[] result) {
+                result[0] = f1.calculate(x[0], x[1]);
+                result[1] = f2.calculate(x[0], x[1]);
+            }
+
+            @Override
+            public void jacobian(double[] x, double[] jacobian) {
+                Dual dx = Dual.variable(x[0]);
+                Dual dy = Dual.variable(x[1]);
+                Dual cx = Dual.constant(x[0]);
+                Dual cy = Dual.constant(x[1]);
+                jacobian[0] = f1.calculate(dx, cy).derivative();
+                jacobian[1] = f1.calculate(cx, dy).derivative();
+                jacobian[2] = f2.calculate(dx, cy).derivative();
+                jacobian[3] = f2.calculate(cx, dy).derivative();
+            }
+        };
     }
 
 }
@@ -0,0 +1,91 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.autodiff.Dual;
+import ru.rosroble.eqsolver.interfaces.DifferentiableFunction;
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+
+/**
+ * Newton's method safeguarded by bisection. The root is kept bracketed; a Newton step is taken
+ * when it lands inside the bracket and converges fast enough, otherwise the bracket is bisected.
+ * Converges quadratically near a simple root and can never diverge.
+ * Derivatives of a {@link DifferentiableFunction} are exact, other functions use forward differences.
+ */
+public class HybridNewtonSolver implements EquationSolver {
+    private final double eps;
+
+    public HybridNewtonSolver(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public Result solve(Function f, double a, double b) {
+        MutableResult out = new MutableResult();
+        solve(f, a, b, out);
+        return out.toResult();
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        double fa = f.calculate(a);
+        double fb = f.calculate(b);
+        if (fa == 0 || fb == 0) {
+            out.found(fa == 0 ? a : b, 0, 0);
+            return;
+        }
+        if (fa * fb > 0) throw new IllegalArgumentException("f(a) * f(b) should be < 0");
+        // orient the bracket so that f(low) < 0 < f(high)
+        double low = fa < 0 ? a : b;
+        double high = fa < 0 ? b : a;
+        double x = a + (b - a) / 2;
+        double step = Math.abs(b - a);
+        double previousStep = step;
+        // f(x) and f'(x) are carried as primitives: a dual number that lives across iterations could not be
+        // scalar-replaced by the JIT and would be allocated on every step
+        Dual y = evaluate(f, x);
+        double fx = y.value();
+        double dfx = y.derivative();
+        int iter = 0;
+        while (iter < EquationSolverRunner.MAX_ITERATION) {
+            boolean outside = ((x - high) * dfx - fx) * ((x - low) * dfx - fx) >= 0;
+            // bisect if the Newton step leaves the bracket or would not halve the step before last
+            if (outside || Math.abs(2 * fx) > Math.abs(previousStep * dfx)) {
+                previousStep = step;
+                step = (high - low) / 2;
+                x = low + step;
+            } else {
+                previousStep = step;
+                step = fx / dfx;
+                x -= step;
+            }
+            if (Math.abs(step) < eps) {
+                out.found(x, iter, Math.abs(step));
+                return;
+            }
+            y = evaluate(f, x);
+            fx = y.value();
+            dfx = y.derivative();
+            if (fx == 0) {
+                out.found(x, iter, 0);
+                return;
+            }
+            if (fx < 0) low = x;
+            else high = x;
+            iter++;
+        }
+        out.diverged(EquationSolverRunner.MAX_ITERATION);
+    }
+
+    /**
+     * @return f(x) and f'(x) as a dual number
+     */
+    private static Dual evaluate(Function f, double x) {
+        if (f instanceof DifferentiableFunction) {
+            return ((DifferentiableFunction) f).calculate(Dual.variable(x));
+        }
+        double fx = f.calculate(x);
+        return new Dual(fx, (f.calculate(x + EquationSolverRunner.delta) - fx) / EquationSolverRunner.delta, 0);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+
+/**
+ * Regula falsi with the Illinois modification. Like the false position method the root stays bracketed,
+ * but when the same end is retained twice in a row its function value is halved,
+ * which avoids the one-sided linear convergence of plain regula falsi.
+ */
+public class IllinoisSolver implements EquationSolver {
+    private final double eps;
+
+    public IllinoisSolver(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public Result solve(Function f, double a, double b) {
+        MutableResult out = new MutableResult();
+        solve(f, a, b, out);
+        return out.toResult();
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        double fa = f.calculate(a);
+        double fb = f.calculate(b);
+        if (fa == 0 || fb == 0) {
+            out.found(fa == 0 ? a : b, 0, 0);
+            return;
+        }
+        if (fa * fb > 0) throw new IllegalArgumentException("f(a) * f(b) should be < 0");
+        // true if the end a was retained on the previous step
+        boolean retained = false;
+        double previous = a;
+        int iter = 0;
+        while (iter < EquationSolverRunner.MAX_ITERATION) {
+            double x = (a * fb - b * fa) / (fb - fa);
+            double fx = f.calculate(x);
+            if (fx == 0 || Math.abs(x - previous) < eps || Math.abs(b - a) < eps) {
+                out.found(x, iter, fx == 0 ? 0 : Math.min(Math.abs(x - previous), Math.abs(b - a)));
+                return;
+            }
+            if (fx * fb < 0) {
+                a = b;
+                fa = fb;
+                b = x;
+                fb = fx;
+                retained = false;
+            } else {
+                b = x;
+                fb = fx;
+                if (retained) fa /= 2;
+                retained = true;
+            }
+            previous = x;
+            iter++;
+        }
+        out.diverged(EquationSolverRunner.MAX_ITERATION);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.rosroble.eqsolver.solvers;
 
 import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.metrics.LinearSolveEvent;
+import ru.rosroble.eqsolver.metrics.SolverMetrics;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -9,6 +11,7 @@ import java.util.stream.IntStream;
 
 public class LinearSystemSolver {
     public static final int MAX_ITERATION = 1000000;
+    private static final SolverMetrics METRICS = SolverMetrics.forName("Linear system (simple iteration)");
     private double eps;
     private double[] solution;
     private double[] error;
@@ -17,17 +20,38 @@ public class LinearSystemSolver {
         this.eps = eps;
     }
 
+    /**
+     * Solves the system by simple iteration. Every call is recorded in the "Linear system (simple iteration)"
+     * {@link SolverMetrics} and as a {@link LinearSolveEvent}.
+     */
     public double[] solve(double[][] matrix) throws DivergenceException {
-        if (!new Kuhn(matrix).diagDominance()) {
-            throw new DivergenceException("Can't achieve diag dominance");
-        }
-        modifyMatrix(matrix);
-        solution = initSolution(matrix);
-        int iterations = iterate(matrix);
-        if (iterations == MAX_ITERATION) {
-            throw new DivergenceException("Can't achieve required accuracy");
+        LinearSolveEvent event = new LinearSolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int iterations = 0;
+        boolean solved = false;
+        try {
+            if (!new Kuhn(matrix).diagDominance()) {
+                throw new DivergenceException("Can't achieve diag dominance");
+            }
+            modifyMatrix(matrix);
+            solution = initSolution(matrix);
+            iterations = iterate(matrix);
+            if (iterations == MAX_ITERATION) {
+                throw new DivergenceException("Can't achieve required accuracy");
+            }
+            solved = true;
+            return solution;
+        } finally {
+            METRICS.record(System.nanoTime() - start, !solved, iterations, 0, 0, 1);
+            event.end();
+            if (event.shouldCommit()) {
+                event.size = matrix.length;
+                event.status = solved ? "SOLVED" : "DIVERGENCE";
+                event.iterations = iterations;
+                event.commit();
+            }
         }
-        return solution;
     }
 
 
@@ -0,0 +1,190 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.interfaces.VectorFunction;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds all solutions of a system of n non-linear equations in a box by starting Newton's method
+ * from {@code starts} points of a {@link SobolSequence} spread over the box. Starts are run concurrently
+ * on a fork-join pool; converged points closer than {@code 10 * eps} are one solution.
+ * A start whose iterate comes within the capture radius of an already found solution is stopped:
+ * it is in the basin of that solution and would only find it again.
+ * Solutions whose basins miss every start are not found; seeds such as
+ * {@link ru.rosroble.eqsolver.plot.ImplicitCurveTracer#seeds} can be given to run before the sequence.
+ */
+public class MultiStartNewtonSolver {
+    public static final int DEFAULT_STARTS = 256;
+    // capture radius as a fraction of the box diagonal
+    public static final double CAPTURE = 1e-3;
+    // starts solved sequentially by one fork-join task
+    private static final int BATCH = 8;
+    private final int n;
+    private final double eps;
+    private final int starts;
+    private final ForkJoinPool pool;
+    private final SobolSequence sequence;
+
+    public MultiStartNewtonSolver(int n, double eps, int starts, ForkJoinPool pool) {
+        if (starts < 1) throw new IllegalArgumentException("starts should be at least 1");
+        this.n = n;
+        this.eps = eps;
+        this.starts = starts;
+        this.pool = pool;
+        this.sequence = new SobolSequence(n);
+    }
+
+    public MultiStartNewtonSolver(int n, double eps) {
+        this(n, eps, DEFAULT_STARTS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param system the system F
+     * @param lower lower corner of the box
+     * @param upper upper corner of the box
+     * @return a result for every distinct solution inside the box in lexicographic order of the solution,
+     * each with the iteration count and error of the start that found it
+     */
+    public List<Result> solveAll(VectorFunction system, double[] lower, double[] upper) {
+        return solveAll(system, lower, upper, List.of());
+    }
+
+    /**
+     * Same as {@link #solveAll(VectorFunction, double[], double[])}, but first starts Newton's method from the seeds.
+     * Seeds close to solutions find them in a few iterations, and the sequence starts in their basins are then
+     * stopped early.
+     * @param seeds starting points tried before the sequence
+     */
+    public List<Result> solveAll(VectorFunction system, double[] lower, double[] upper, List<double[]> seeds) {
+        double diagonal = 0;
+        for (int i = 0; i < n; i++) {
+            diagonal = Math.hypot(diagonal, upper[i] - lower[i]);
+        }
+        Search search = new Search(system, lower, upper, CAPTURE * diagonal, seeds);
+        if (!seeds.isEmpty()) pool.invoke(new StartTask(search, 0, seeds.size()));
+        pool.invoke(new StartTask(search, seeds.size(), seeds.size() + starts));
+        List<Result> solutions = new ArrayList<>(search.solutions);
+        solutions.sort((r1, r2) -> {
+            for (int i = 0; i < n; i++) {
+                int c = Double.compare(r1.getSolution()[i], r2.getSolution()[i]);
+                if (c != 0) return c;
+            }
+            return 0;
+        });
+        return solutions;
+    }
+
+    /**
+     * State shared by the starts of one {@link #solveAll} call.
+     */
+    private class Search {
+        final VectorFunction system;
+        final double[] lower;
+        final double[] upper;
+        final double capture;
+        final List<double[]> seeds;
+        // guarded by itself; read without the lock through the volatile snapshot
+        final List<Result> solutions = new ArrayList<>();
+        volatile double[][] found = new double[0][];
+
+        Search(VectorFunction system, double[] lower, double[] upper, double capture, List<double[]> seeds) {
+            this.system = system;
+            this.lower = lower;
+            this.upper = upper;
+            this.capture = capture;
+            this.seeds = seeds;
+        }
+
+        /**
+         * Writes start k into x0: seeds come first, then points of the sequence mapped onto the box.
+         */
+        void start(int k, double[] x0) {
+            if (k < seeds.size()) {
+                System.arraycopy(seeds.get(k), 0, x0, 0, n);
+                return;
+            }
+            sequence.point(k - seeds.size() + 1, x0);
+            for (int i = 0; i < n; i++) {
+                x0[i] = lower[i] + x0[i] * (upper[i] - lower[i]);
+            }
+        }
+
+        boolean inBox(double[] x) {
+            for (int i = 0; i < n; i++) {
+                if (x[i] < lower[i] || x[i] > upper[i]) return false;
+            }
+            return true;
+        }
+
+        /**
+         * @return true if x is within the radius of a found solution
+         */
+        boolean near(double[][] points, double[] x, double radius) {
+            for (double[] point : points) {
+                double distance = 0;
+                for (int i = 0; i < n; i++) {
+                    distance = Math.hypot(distance, point[i] - x[i]);
+                }
+                if (distance < radius) return true;
+            }
+            return false;
+        }
+
+        void add(Result result) {
+            synchronized (solutions) {
+                double[][] points = found;
+                if (near(points, result.getSolution(), 10 * eps)) return;
+                double[][] extended = new double[points.length + 1][];
+                System.arraycopy(points, 0, extended, 0, points.length);
+                extended[points.length] = result.getSolution();
+                solutions.add(result);
+                found = extended;
+            }
+        }
+    }
+
+    /**
+     * Runs starts [from, to) (see {@link Search#start}), splitting the range in halves until at most {@link #BATCH} starts remain.
+     */
+    private class StartTask extends RecursiveAction {
+        private final Search search;
+        private final int from;
+        private final int to;
+
+        StartTask(Search search, int from, int to) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new StartTask(search, from, mid), new StartTask(search, mid, to));
+                return;
+            }
+            NewtonSystemSolver solver = new NewtonSystemSolver(n, eps);
+            NewtonSystemSolver.Monitor monitor = (x, iteration) -> search.near(search.found, x, search.capture);
+            double[] x0 = new double[n];
+            for (int k = from; k < to; k++) {
+                search.start(k, x0);
+                Result result;
+                try {
+                    result = solver.solve(search.system, x0, monitor);
+                } catch (DivergenceException e) {
+                    continue;
+                }
+                if (result.getStatus() == ResultStatus.SOLUTION_FOUND && search.inBox(result.getSolution())) {
+                    search.add(result);
+                }
+            }
+        }
+    }
+}
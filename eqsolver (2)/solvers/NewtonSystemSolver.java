@@ -0,0 +1,222 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.interfaces.DifferentiableVectorFunction;
+import ru.rosroble.eqsolver.interfaces.VectorFunction;
+import ru.rosroble.eqsolver.metrics.SolveEvent;
+import ru.rosroble.eqsolver.metrics.SolverMetrics;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+/**
+ * Newton's method for systems of n non-linear equations.
+ * All working arrays (iterate, residual, Jacobian, step, pivots) are allocated once in the constructor,
+ * the Jacobian is taken from a {@link DifferentiableVectorFunction} or approximated by forward differences
+ * in place and every linear step is solved
+ * by an in-place LU factorization with partial pivoting, so a Newton step allocates nothing.
+ * An instance is not thread-safe: use one solver per thread.
+ * Every solve is recorded in the "Newton's method for systems" {@link SolverMetrics} and as a {@link SolveEvent}.
+ */
+public class NewtonSystemSolver {
+    public static final int MAX_ITERATION = 10000;
+    public static final double delta = 1e-6;
+    private static final SolverMetrics METRICS = SolverMetrics.forName("Newton's method for systems");
+    private final int n;
+    private final double eps;
+    private final double[] x;
+    private final double[] f;
+    private final double[] shifted;
+    // row-major n x n Jacobian, overwritten by its LU factors
+    private final double[] jacobian;
+    private final double[] step;
+    private final int[] pivot;
+    // counters of the current solve
+    private int evaluations;
+    private int derivatives;
+    private int linearSolves;
+
+    public NewtonSystemSolver(int n, double eps) {
+        this.n = n;
+        this.eps = eps;
+        this.x = new double[n];
+        this.f = new double[n];
+        this.shifted = new double[n];
+        this.jacobian = new double[n * n];
+        this.step = new double[n];
+        this.pivot = new int[n];
+    }
+
+    /**
+     * Solves F(x) = 0 starting from x0.
+     * @param system the system F
+     * @param x0 initial approximation (not modified)
+     * @return result with the solution and the last Newton step as the error estimate
+     * @throws DivergenceException thrown if the Jacobian becomes singular
+     */
+    public Result solve(VectorFunction system, double[] x0) throws DivergenceException {
+        return solve(system, x0, null);
+    }
+
+    /**
+     * Solves F(x) = 0 starting from x0 and lets the monitor stop the iteration early.
+     * @param monitor called after every step that did not converge, may be null
+     * @return as {@link #solve(VectorFunction, double[])}; a stopped iteration has DIVERGENCE status
+     * @throws DivergenceException thrown if the Jacobian becomes singular
+     */
+    public Result solve(VectorFunction system, double[] x0, Monitor monitor) throws DivergenceException {
+        evaluations = 0;
+        derivatives = 0;
+        linearSolves = 0;
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Result result = null;
+        try {
+            result = iterate(system, x0, monitor);
+            return result;
+        } finally {
+            ResultStatus status = result == null ? null : result.getStatus();
+            int iterations = result == null ? 0 : result.getIterations();
+            METRICS.record(System.nanoTime() - start, status != ResultStatus.SOLUTION_FOUND, iterations,
+                    evaluations, derivatives, linearSolves);
+            event.end();
+            if (event.shouldCommit()) {
+                event.solver = METRICS.getName();
+                event.status = status == null ? "EXCEPTION" : status.name();
+                event.iterations = iterations;
+                event.evaluations = evaluations;
+                event.derivatives = derivatives;
+                event.linearSolves = linearSolves;
+                event.commit();
+            }
+        }
+    }
+
+    private Result iterate(VectorFunction system, double[] x0, Monitor monitor) throws DivergenceException {
+        System.arraycopy(x0, 0, x, 0, n);
+        int iter = 0;
+        while (iter < MAX_ITERATION) {
+            system.calculate(x, f);
+            evaluations++;
+            jacobian(system);
+            factor();
+            // J * step = -F
+            for (int i = 0; i < n; i++) {
+                step[i] = -f[i];
+            }
+            substitute();
+            linearSolves++;
+            boolean converged = true;
+            for (int i = 0; i < n; i++) {
+                x[i] += step[i];
+                if (Math.abs(step[i]) >= eps) converged = false;
+            }
+            if (converged) {
+                double[] error = new double[n];
+                for (int i = 0; i < n; i++) {
+                    error[i] = Math.abs(step[i]);
+                }
+                return new Result(ResultStatus.SOLUTION_FOUND, x.clone(), iter, error);
+            }
+            iter++;
+            if (monitor != null && monitor.stop(x, iter)) {
+                return new Result(ResultStatus.DIVERGENCE, null, iter, null);
+            }
+        }
+        return new Result(ResultStatus.DIVERGENCE, null, MAX_ITERATION, null);
+    }
+
+    /**
+     * Observes the iterates of {@link #solve(VectorFunction, double[], Monitor)}.
+     */
+    @FunctionalInterface
+    public interface Monitor {
+        /**
+         * @param x the current iterate, must not be modified or kept
+         * @param iteration number of steps made
+         * @return true to stop the iteration
+         */
+        boolean stop(double[] x, int iteration);
+    }
+
+    /**
+     * Jacobian at x: exact if the system provides it, otherwise by forward differences,
+     * column j being (F(x + delta * e_j) - F(x)) / delta.
+     */
+    private void jacobian(VectorFunction system) {
+        if (system instanceof DifferentiableVectorFunction) {
+            ((DifferentiableVectorFunction) system).jacobian(x, jacobian);
+            derivatives++;
+            return;
+        }
+        evaluations += n;
+        for (int j = 0; j < n; j++) {
+            double saved = x[j];
+            x[j] = saved + delta;
+            system.calculate(x, shifted);
+            x[j] = saved;
+            for (int i = 0; i < n; i++) {
+                jacobian[i * n + j] = (shifted[i] - f[i]) / delta;
+            }
+        }
+    }
+
+    private void factor() throws DivergenceException {
+        for (int k = 0; k < n; k++) {
+            int p = k;
+            double max = Math.abs(jacobian[k * n + k]);
+            for (int i = k + 1; i < n; i++) {
+                double value = Math.abs(jacobian[i * n + k]);
+                if (value > max) {
+                    max = value;
+                    p = i;
+                }
+            }
+            if (max == 0) throw new DivergenceException("Jacobian is singular");
+            pivot[k] = p;
+            if (p != k) {
+                for (int j = 0; j < n; j++) {
+                    double t = jacobian[k * n + j];
+                    jacobian[k * n + j] = jacobian[p * n + j];
+                    jacobian[p * n + j] = t;
+                }
+            }
+            double diag = jacobian[k * n + k];
+            for (int i = k + 1; i < n; i++) {
+                double l = jacobian[i * n + k] / diag;
+                jacobian[i * n + k] = l;
+                for (int j = k + 1; j < n; j++) {
+                    jacobian[i * n + j] -= l * jacobian[k * n + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves LU * step = P * step in place using the factors and pivots from {@link #factor()}.
+     */
+    private void substitute() {
+        for (int k = 0; k < n; k++) {
+            int p = pivot[k];
+            if (p != k) {
+                double t = step[k];
+                step[k] = step[p];
+                step[p] = t;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double sum = step[i];
+            for (int j = 0; j < i; j++) {
+                sum -= jacobian[i * n + j] * step[j];
+            }
+            step[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = step[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= jacobian[i * n + j] * step[j];
+            }
+            step[i] = sum / jacobian[i * n + i];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.exceptions.DivergenceException;
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+import ru.rosroble.eqsolver.result.ResultStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds all roots of a function on an interval. The interval is sampled at {@code samples} equal subintervals,
+ * every subinterval where f changes sign becomes a bracket, and the brackets are solved concurrently
+ * on a fork-join pool by a bracketing solver.
+ * Roots of even multiplicity and pairs of roots closer than one subinterval do not change the sign of f
+ * on a subinterval and are not found.
+ */
+public class RootScanner implements EquationSolver {
+    public static final int DEFAULT_SAMPLES = 1000;
+    // brackets solved sequentially by one fork-join task
+    private static final int BATCH = 4;
+    private final EquationSolver solver;
+    private final int samples;
+    private final ForkJoinPool pool;
+
+    public RootScanner(EquationSolver solver, int samples, ForkJoinPool pool) {
+        if (samples < 1) throw new IllegalArgumentException("samples should be at least 1");
+        this.solver = solver;
+        this.samples = samples;
+        this.pool = pool;
+    }
+
+    public RootScanner(double eps) {
+        this(new HybridNewtonSolver(eps), DEFAULT_SAMPLES, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solves f(x) = 0 on [a, b] and combines the roots found into one result: solutions and errors in ascending order
+     * of the root, the total number of iterations over all brackets as the iteration count. Brackets where
+     * the solver diverged are skipped; if no root is found, the result has DIVERGENCE status.
+     */
+    @Override
+    public Result solve(Function f, double a, double b) {
+        List<Result> roots = solveAll(f, a, b);
+        int found = 0;
+        int iterations = 0;
+        for (Result root : roots) {
+            if (root.getStatus() == ResultStatus.SOLUTION_FOUND) found++;
+            iterations += root.getIterations();
+        }
+        if (found == 0) return new Result(ResultStatus.DIVERGENCE, null, iterations, null);
+        double[] solution = new double[found];
+        double[] error = new double[found];
+        int i = 0;
+        for (Result root : roots) {
+            if (root.getStatus() != ResultStatus.SOLUTION_FOUND) continue;
+            solution[i] = root.getSolution()[0];
+            error[i++] = root.getError()[0];
+        }
+        return new Result(ResultStatus.SOLUTION_FOUND, solution, iterations, error);
+    }
+
+    /**
+     * Same as {@link #solve(Function, double, double)}, but writes only the smallest root found and its error
+     * into the holder; use {@link #solveAll} to get every root.
+     */
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        Result smallest = null;
+        int iterations = 0;
+        for (Result root : solveAll(f, a, b)) {
+            if (smallest == null && root.getStatus() == ResultStatus.SOLUTION_FOUND) smallest = root;
+            iterations += root.getIterations();
+        }
+        if (smallest == null) out.diverged(iterations);
+        else out.found(smallest.getSolution()[0], iterations, smallest.getError()[0]);
+    }
+
+    /**
+     * @param f a function
+     * @param a left end of the interval
+     * @param b right end of the interval
+     * @return a result for every bracketed root in ascending order, each with its own error and iteration count
+     */
+    public List<Result> solveAll(Function f, double a, double b) {
+        double left = Math.min(a, b);
+        double h = Math.abs(b - a) / samples;
+        List<double[]> brackets = new ArrayList<>();
+        List<Result> exact = new ArrayList<>();
+        double x0 = left;
+        double f0 = f.calculate(x0);
+        if (f0 == 0) exact.add(exactRoot(x0));
+        for (int i = 1; i <= samples; i++) {
+            double x1 = i == samples ? Math.max(a, b) : left + i * h;
+            double f1 = f.calculate(x1);
+            if (f1 == 0) exact.add(exactRoot(x1));
+            else if (f0 * f1 < 0) brackets.add(new double[] {x0, x1, f0, f1});
+            x0 = x1;
+            f0 = f1;
+        }
+        List<Result> roots = brackets.isEmpty() ? new ArrayList<>() : pool.invoke(new BracketTask(f, brackets, 0, brackets.size()));
+        roots.addAll(exact);
+        roots.sort((r1, r2) -> Double.compare(position(r1), position(r2)));
+        return roots;
+    }
+
+    private static Result exactRoot(double x) {
+        return new Result(ResultStatus.SOLUTION_FOUND, new double[] {x}, 0, new double[] {0});
+    }
+
+    private static double position(Result result) {
+        return result.getSolution() == null ? Double.NaN : result.getSolution()[0];
+    }
+
+    /**
+     * Solves brackets [from, to), splitting the range in halves until at most {@link #BATCH} brackets remain.
+     */
+    private class BracketTask extends RecursiveTask<List<Result>> {
+        private final Function f;
+        private final List<double[]> brackets;
+        private final int from;
+        private final int to;
+
+        BracketTask(Function f, List<double[]> brackets, int from, int to) {
+            this.f = f;
+            this.brackets = brackets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Result> compute() {
+            if (to - from <= BATCH) {
+                List<Result> roots = new ArrayList<>();
+                MutableResult out = new MutableResult();
+                for (int i = from; i < to; i++) {
+                    Result root = solveBracket(brackets.get(i), out);
+                    if (root != null) roots.add(root);
+                }
+                return roots;
+            }
+            int mid = (from + to) >>> 1;
+            BracketTask leftTask = new BracketTask(f, brackets, from, mid);
+            leftTask.fork();
+            List<Result> right = new BracketTask(f, brackets, mid, to).compute();
+            List<Result> roots = leftTask.join();
+            roots.addAll(right);
+            return roots;
+        }
+
+        /**
+         * @return the root in the bracket or null if the sign change is a discontinuity (|f| grows at the "root")
+         */
+        private Result solveBracket(double[] bracket, MutableResult out) {
+            try {
+                solver.solve(f, bracket[0], bracket[1], out);
+            } catch (DivergenceException e) {
+                out.diverged(0);
+            }
+            if (out.getStatus() == ResultStatus.SOLUTION_FOUND
+                    && Math.abs(f.calculate(out.getSolution())) > Math.min(Math.abs(bracket[2]), Math.abs(bracket[3]))) {
+                return null;
+            }
+            return out.toResult();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.rosroble.eqsolver.solvers;
+
+import ru.rosroble.eqsolver.interfaces.EquationSolver;
+import ru.rosroble.eqsolver.interfaces.Function;
+import ru.rosroble.eqsolver.result.MutableResult;
+import ru.rosroble.eqsolver.result.Result;
+
+/**
+ * Secant method started from the interval ends. Needs one evaluation per step and converges superlinearly
+ * near a simple root, but the iterates are not kept inside [a, b] and may diverge.
+ */
+public class SecantSolver implements EquationSolver {
+    private final double eps;
+
+    public SecantSolver(double eps) {
+        this.eps = eps;
+    }
+
+    @Override
+    public Result solve(Function f, double a, double b) {
+        MutableResult out = new MutableResult();
+        solve(f, a, b, out);
+        return out.toResult();
+    }
+
+    @Override
+    public void solve(Function f, double a, double b, MutableResult out) {
+        double x0 = a;
+        double x1 = b;
+        double f0 = f.calculate(x0);
+        double f1 = f.calculate(x1);
+        int iter = 0;
+        while (iter < EquationSolverRunner.MAX_ITERATION) {
+            double next = x1 - f1 * (x1 - x0) / (f1 - f0);
+            // f(x(n)) = f(x(n-1)) or iterations overflowed
+            if (!Double.isFinite(next)) {
+                out.diverged(iter);
+                return;
+            }
+            if (Math.abs(next - x1) < eps) {
+                out.found(next, iter, Math.abs(next - x1));
+                return;
+            }
+            x0 = x1;
+            f0 = f1;
+            x1 = next;
+            f1 = f.calculate(x1);
+            iter++;
+        }
+        out.diverged(EquationSolverRunner.MAX_ITERATION);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.rosroble.eqsolver.solvers;
+
+/**
+ * Sobol low-discrepancy sequence in the unit cube of up to {@link #MAX_DIMENSION} dimensions.
+ * Direction numbers are those of Joe and Kuo; the point with a given index is computed directly
+ * from the Gray code of the index, so points can be generated in any order and from any thread.
+ */
+class SobolSequence {
+    public static final int MAX_DIMENSION = 8;
+    private static final int BITS = 32;
+    // degree s, coefficients a and initial direction numbers m of the primitive polynomial of dimensions 2, 3, ...
+    private static final int[] DEGREE = {1, 2, 3, 3, 4, 4, 5};
+    private static final int[] COEFFICIENTS = {0, 1, 1, 2, 1, 4, 2};
+    private static final int[][] INITIAL = {
+            {1}, {1, 3}, {1, 3, 1}, {1, 1, 1}, {1, 1, 3, 3}, {1, 3, 5, 13}, {1, 1, 5, 5, 17}
+    };
+    // direction[d][j] is the direction number v_j of dimension d scaled by 2^32
+    private final long[][] direction;
+
+    public SobolSequence(int dimension) {
+        if (dimension < 1 || dimension > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Sobol sequence supports 1 to " + MAX_DIMENSION + " dimensions");
+        }
+        direction = new long[dimension][BITS];
+        for (int j = 0; j < BITS; j++) {
+            direction[0][j] = 1L << (BITS - 1 - j);
+        }
+        for (int d = 1; d < dimension; d++) {
+            int s = DEGREE[d - 1];
+            int a = COEFFICIENTS[d - 1];
+            long[] v = direction[d];
+            for (int j = 0; j < s; j++) {
+                v[j] = (long) INITIAL[d - 1][j] << (BITS - 1 - j);
+            }
+            for (int j = s; j < BITS; j++) {
+                v[j] = v[j - s] ^ (v[j - s] >> s);
+                for (int k = 1; k < s; k++) {
+                    if ((a >> (s - 1 - k) & 1) != 0) v[j] ^= v[j - k];
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the point with the given index (0 is the origin) into out.
+     */
+    public void point(long index, double[] out) {
+        long gray = index ^ (index >>> 1);
+        for (int d = 0; d < direction.length; d++) {
+            long value = 0;
+            for (int j = 0; j < BITS && gray >>> j != 0; j++) {
+                if ((gray >>> j & 1) != 0) value ^= direction[d][j];
+            }
+            out[d] = value / (double) (1L << BITS);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.rosroble;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// неинтерактивный режим: решает все системы из каталога или из списка файлов (по одному пути в строке,
+// строки с # пропускаются, относительные пути считаются от каталога списка) на пуле из threads потоков.
+// результат каждой системы выводится одной строкой JSON в порядке входных файлов,
+// итоговая статистика - в System.err
+class BatchRunner {
+    private final Supplier<IterationMethod> methods;
+    private final Engine engine;
+    private final int threads;
+    private final boolean withSolution;
+
+    public BatchRunner(Supplier<IterationMethod> methods, Engine engine, int threads, boolean withSolution) {
+        this.methods = methods;
+        this.engine = engine;
+        this.threads = threads;
+        this.withSolution = withSolution;
+    }
+
+    // результат решения одной системы
+    private static class Job {
+        final Path path;
+        int n;
+        long nonZeros;
+        String engine;
+        String status;
+        int iterations;
+        double lastEps = Double.NaN;
+        double[] solution;
+        String message;
+        long nanos;
+
+        Job(Path path) {
+            this.path = path;
+        }
+    }
+
+    public void run(Path source, PrintWriter out) throws IOException, InterruptedException {
+        List<Path> files = listFiles(source);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Job>> futures = new ArrayList<>();
+        for (Path file : files) {
+            futures.add(pool.submit(() -> solve(file)));
+        }
+        pool.shutdown();
+        int solved = 0;
+        long unknowns = 0;
+        long nonZeros = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Job job;
+            try {
+                job = futures.get(i).get();
+            } catch (ExecutionException e) {
+                // ошибки, не перехваченные в solve (например, OutOfMemoryError), прерывают только эту систему
+                job = new Job(files.get(i));
+                fail(job, e.getCause());
+            }
+            out.println(toJson(job));
+            if (job.status.equals("CONVERGED") || job.status.equals("SOLVED")) solved++;
+            unknowns += job.n;
+            nonZeros += job.nonZeros;
+        }
+        out.flush();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Решено систем: %d из %d, потоков: %d, время: %.3f с, " +
+                        "систем в секунду: %.2f, неизвестных в секунду: %.0f, ненулевых элементов в секунду: %.0f%n",
+                solved, files.size(), threads, seconds,
+                files.size() / seconds, unknowns / seconds, nonZeros / seconds);
+    }
+
+    private List<Path> listFiles(Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> stream = Files.list(source)) {
+                return stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        }
+        Path base = source.toAbsolutePath().getParent();
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(source)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            files.add(base.resolve(line));
+        }
+        return files;
+    }
+
+    private Job solve(Path path) {
+        Job job = new Job(path);
+        long start = System.nanoTime();
+        try {
+            BinaryMatrixFormat.Loaded loaded = MatrixReader.load(path);
+            LinearSystem system = loaded.system;
+            job.n = system.size();
+            job.nonZeros = system.nonZeros();
+            double[] b = new double[job.n];
+            for (int i = 0; i < b.length; i++) {
+                b[i] = system.rhs(i);
+            }
+            PreparedSystem prepared = PreparedSystem.prepare(system, methods.get(), loaded.eps, engine);
+            if (prepared.isDirect()) {
+                job.engine = "direct";
+                job.solution = prepared.solve(b);
+                job.status = "SOLVED";
+            } else {
+                job.engine = "iterative";
+                double[] d = prepared.constants(b);
+                job.solution = d.clone();
+                ConvergenceMonitor monitor = prepared.iterate(d, job.solution, new double[job.n]);
+                job.status = monitor.getStatus().name();
+                job.iterations = monitor.getIterations();
+                job.lastEps = monitor.getLastEps();
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(job, e);
+        }
+        job.nanos = System.nanoTime() - start;
+        return job;
+    }
+
+    private static void fail(Job job, Throwable e) {
+        job.status = "ERROR";
+        job.message = e.getMessage() == null ? e.toString() : e.getMessage();
+        job.solution = null;
+    }
+
+    private String toJson(Job job) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"file\":").append(quote(job.path.toString()))
+                .append(",\"status\":\"").append(job.status).append('"')
+                .append(",\"n\":").append(job.n)
+                .append(",\"nonZeros\":").append(job.nonZeros);
+        if (job.engine != null) sb.append(",\"engine\":\"").append(job.engine).append('"');
+        if (job.iterations > 0) sb.append(",\"iterations\":").append(job.iterations);
+        if (Double.isFinite(job.lastEps)) sb.append(",\"eps\":").append(job.lastEps);
+        sb.append(",\"timeMs\":").append(job.nanos / 1e6);
+        if (job.message != null) sb.append(",\"message\":").append(quote(job.message));
+        if (withSolution && job.solution != null) {
+            sb.append(",\"solution\":[");
+            for (int i = 0; i < job.solution.length; i++) {
+                if (i > 0) sb.append(',');
+                double x = job.solution[i];
+                if (Double.isFinite(x)) sb.append(x);
+                else sb.append("null");
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
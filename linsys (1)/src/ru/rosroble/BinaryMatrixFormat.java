@@ -0,0 +1,145 @@
+package ru.rosroble;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// двоичный формат системы (little-endian) для максимально быстрой загрузки:
+//   int32 MAGIC, int32 вид (DENSE или SPARSE), float64 погрешность, int32 n,
+//   DENSE:  n * (n + 1) float64 - расширенная матрица построчно;
+//   SPARSE: int32 nnz, (n + 1) int32 rowPtr, nnz int32 colIdx, nnz float64 values, n float64 свободных членов
+// массивы читаются целиком из отображенных в память окон файла
+class BinaryMatrixFormat {
+    public static final int MAGIC = 0x3142534C; // "LSB1"
+    public static final int DENSE = 0;
+    public static final int SPARSE = 1;
+    private static final int HEADER = 4 + 4 + 8 + 4;
+    private static final long WINDOW = 1L << 28;
+
+    // система, прочитанная из файла вместе с требуемой погрешностью
+    static class Loaded {
+        final double eps;
+        final LinearSystem system;
+
+        Loaded(double eps, LinearSystem system) {
+            this.eps = eps;
+            this.system = system;
+        }
+    }
+
+    public static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) return false;
+            ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC;
+        }
+    }
+
+    public static Loaded read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) throw new IOException("Неверный формат двоичного файла");
+            int kind = header.getInt();
+            double eps = header.getDouble();
+            int n = header.getInt();
+            long position = HEADER;
+            if (kind == DENSE) {
+                DenseMatrix matrix = new DenseMatrix(n);
+                readDoubles(channel, position, matrix.data());
+                return new Loaded(eps, matrix);
+            }
+            ByteBuffer nnzBuffer = channel.map(FileChannel.MapMode.READ_ONLY, position, 4).order(ByteOrder.LITTLE_ENDIAN);
+            int nnz = nnzBuffer.getInt();
+            position += 4;
+            int[] rowPtr = new int[n + 1];
+            int[] colIdx = new int[nnz];
+            double[] values = new double[nnz];
+            double[] rhs = new double[n];
+            position = readInts(channel, position, rowPtr);
+            position = readInts(channel, position, colIdx);
+            position = readDoubles(channel, position, values);
+            readDoubles(channel, position, rhs);
+            return new Loaded(eps, new SparseMatrix(n, rowPtr, colIdx, values, rhs));
+        }
+    }
+
+    public static void write(Path path, double eps, LinearSystem system) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int n = system.size();
+            boolean sparse = system instanceof SparseMatrix;
+            ByteBuffer header = ByteBuffer.allocate(HEADER + 4).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(sparse ? SPARSE : DENSE).putDouble(eps).putInt(n);
+            if (sparse) header.putInt((int) system.nonZeros());
+            header.flip();
+            channel.write(header);
+            if (!sparse) {
+                writeDoubles(channel, ((DenseMatrix) system).data());
+                return;
+            }
+            SparseMatrix matrix = (SparseMatrix) system;
+            int nnz = (int) matrix.nonZeros();
+            writeInts(channel, matrix.rowPtr(), n + 1);
+            writeInts(channel, matrix.colIdx(), nnz);
+            writeDoubles(channel, matrix.values(), nnz);
+            writeDoubles(channel, matrix.rhs(), n);
+        }
+    }
+
+    private static long readDoubles(FileChannel channel, long position, double[] target) throws IOException {
+        int done = 0;
+        while (done < target.length) {
+            int count = (int) Math.min(target.length - done, WINDOW / 8);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, count * 8L);
+            window.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(target, done, count);
+            done += count;
+            position += count * 8L;
+        }
+        return position;
+    }
+
+    private static long readInts(FileChannel channel, long position, int[] target) throws IOException {
+        int done = 0;
+        while (done < target.length) {
+            int count = (int) Math.min(target.length - done, WINDOW / 4);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, count * 4L);
+            window.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(target, done, count);
+            done += count;
+            position += count * 4L;
+        }
+        return position;
+    }
+
+    private static void writeDoubles(FileChannel channel, double[] source) throws IOException {
+        writeDoubles(channel, source, source.length);
+    }
+
+    private static void writeDoubles(FileChannel channel, double[] source, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        for (int done = 0; done < length; ) {
+            int count = Math.min(length - done, buffer.capacity() / 8);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(source, done, count);
+            buffer.limit(count * 8);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            done += count;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, int[] source, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        for (int done = 0; done < length; ) {
+            int count = Math.min(length - done, buffer.capacity() / 4);
+            buffer.clear();
+            buffer.asIntBuffer().put(source, done, count);
+            buffer.limit(count * 4);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            done += count;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.rosroble;
+
+// наблюдатель за итерационным процессом
+@FunctionalInterface
+interface ConvergenceListener {
+
+    // вызывается после каждой итерации с максимальной погрешностью на ней; false прерывает итерации
+    boolean onIteration(int iteration, double maxEps);
+}
@@ -0,0 +1,167 @@
+package ru.rosroble;
+
+// записывает историю погрешностей и прерывает итерации, как только становится ясно,
+// что точность eps не будет достигнута за maxIteration итераций: погрешность не конечна,
+// неуклонно растет, перестала убывать или убывает так медленно, что по оценке скорости сходимости не успеет стать меньше eps.
+// Память не зависит от числа итераций: последние 2 * WINDOW + 1 погрешностей хранятся в кольцевом буфере,
+// а вся история - в прореженном виде, не более SAMPLES значений
+class ConvergenceMonitor implements ConvergenceListener {
+    // число итераций, по которому оценивается скорость сходимости
+    public static final int WINDOW = 10;
+    // погрешность, выросшая во столько раз относительно наименьшей, означает расходимость
+    public static final double GROWTH_LIMIT = 1e8;
+    // доля maxIteration, после которой по скорости сходимости прогнозируется, успеет ли процесс сойтись
+    public static final double STAGNATION_START = 0.01;
+    // наибольшее число значений прореженной истории
+    public static final int SAMPLES = 64;
+    private final double eps;
+    private final int maxIteration;
+    private final ConvergenceListener delegate;
+    private final long startNanos;
+    // погрешность k-й итерации (с нуля) хранится в recent[k % recent.length]
+    private final double[] recent = new double[2 * WINDOW + 1];
+    // погрешности итераций 0, stride, 2 * stride, ...; при заполнении каждое второе значение отбрасывается
+    private final double[] samples = new double[SAMPLES];
+    private int sampleCount;
+    private int stride = 1;
+    private int iterations;
+    private double minEps = Double.MAX_VALUE;
+    private Status status = Status.RUNNING;
+
+    enum Status {
+        RUNNING, CONVERGED, DIVERGED, STAGNATED, MAX_ITERATION, ABORTED
+    }
+
+    public ConvergenceMonitor(double eps, int maxIteration) {
+        this(eps, maxIteration, null);
+    }
+
+    // delegate получает каждую итерацию до проверок монитора и тоже может прервать процесс
+    public ConvergenceMonitor(double eps, int maxIteration, ConvergenceListener delegate) {
+        this.eps = eps;
+        this.maxIteration = maxIteration;
+        this.delegate = delegate;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public boolean onIteration(int iteration, double maxEps) {
+        record(maxEps);
+        if (delegate != null && !delegate.onIteration(iteration, maxEps)) {
+            status = Status.ABORTED;
+            return false;
+        }
+        if (maxEps < eps) {
+            status = Status.CONVERGED;
+            return false;
+        }
+        if (!Double.isFinite(maxEps) || maxEps > minEps * GROWTH_LIMIT) {
+            status = Status.DIVERGED;
+            return false;
+        }
+        minEps = Math.min(minEps, maxEps);
+        if (iterations >= maxIteration) {
+            status = Status.MAX_ITERATION;
+            return false;
+        }
+        if (iterations > 2 * WINDOW && growing()) {
+            status = Status.DIVERGED;
+            return false;
+        }
+        // погрешность медленно сходящегося процесса может долго (порядка n итераций) держаться почти постоянной,
+        // прежде чем начать убывать, поэтому прогноз делается не раньше STAGNATION_START от maxIteration
+        // и по более быстрой из скоростей на последнем окне и на последней половине истории;
+        // погрешность, которая к этому моменту не убывает ни на одном из них, уже не достигнет eps
+        if (iterations > 2 * WINDOW && iterations >= maxIteration * STAGNATION_START) {
+            double rate = Math.min(rate(), rate(iterations / 2));
+            if (!(rate < 1) || iterations + Math.log(eps / maxEps) / Math.log(rate) > maxIteration) {
+                status = Status.STAGNATED;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void record(double maxEps) {
+        int k = iterations++;
+        recent[k % recent.length] = maxEps;
+        if (k % stride != 0) return;
+        if (sampleCount == SAMPLES) {
+            for (int i = 0; i < SAMPLES / 2; i++) {
+                samples[i] = samples[2 * i];
+            }
+            sampleCount = SAMPLES / 2;
+            stride *= 2;
+            if (k % stride != 0) return;
+        }
+        samples[sampleCount++] = maxEps;
+    }
+
+    // погрешность k-й итерации; для k раньше последних recent.length итераций - ближайшая не позже k из прореженной истории
+    private double eps(int k) {
+        return iterations - k <= recent.length ? recent[k % recent.length] : samples[k / stride];
+    }
+
+    // итерация, погрешность которой возвращает eps(k)
+    private int sampledIteration(int k) {
+        return iterations - k <= recent.length ? k : k / stride * stride;
+    }
+
+    // true, если погрешность росла на каждой из последних 2 * WINDOW итераций
+    private boolean growing() {
+        for (int k = iterations - 2 * WINDOW; k < iterations; k++) {
+            if (!(eps(k) > eps(k - 1))) return false;
+        }
+        return true;
+    }
+
+    // среднее уменьшение погрешности за итерацию на последних WINDOW итерациях
+    public double rate() {
+        return rate(WINDOW);
+    }
+
+    private double rate(int window) {
+        if (iterations < 2) return Double.NaN;
+        int first = sampledIteration(iterations - 1 - Math.min(window, iterations - 1));
+        return Math.pow(eps(iterations - 1) / eps(first), 1.0 / (iterations - 1 - first));
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getLastEps() {
+        return iterations == 0 ? Double.NaN : eps(iterations - 1);
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Итог: %s, итераций: %d, погрешность: %.3e, скорость сходимости: %.4f, время: %.3f мс",
+                statusText(), iterations, getLastEps(), rate(), getElapsedNanos() / 1e6);
+    }
+
+    private String statusText() {
+        switch (status) {
+            case CONVERGED:
+                return "точность достигнута";
+            case DIVERGED:
+                return "процесс расходится";
+            case STAGNATED:
+                return "сходимость слишком медленная";
+            case MAX_ITERATION:
+                return "превышено допустимое число итераций";
+            case ABORTED:
+                return "прервано наблюдателем";
+            default:
+                return "в процессе";
+        }
+    }
+}
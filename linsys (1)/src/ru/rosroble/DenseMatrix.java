@@ -0,0 +1,99 @@
+package ru.rosroble;
+
+// плотная расширенная матрица системы, хранящаяся построчно в одном массиве double[]
+// строка i занимает элементы [i * stride, i * stride + n], последний из которых - свободный член
+class DenseMatrix implements LinearSystem {
+    private final int n;
+    private final int stride;
+    private final double[] data;
+
+    public DenseMatrix(int n) {
+        this.n = n;
+        this.stride = n + 1;
+        this.data = new double[n * stride];
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    public double[] data() {
+        return data;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[i * stride + j];
+    }
+
+    public void set(int i, int j, double value) {
+        data[i * stride + j] = value;
+    }
+
+    @Override
+    public double rhs(int i) {
+        return data[i * stride + n];
+    }
+
+    @Override
+    public long nonZeros() {
+        return (long) n * n;
+    }
+
+    @Override
+    public double rowAbsSum(int i) {
+        int offset = i * stride;
+        double sum = 0;
+        for (int j = 0; j < n; j++) {
+            sum += Math.abs(data[offset + j]);
+        }
+        return sum;
+    }
+
+    @Override
+    public void permuteRows(int[] order) {
+        double[] copy = data.clone();
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(copy, order[i] * stride, data, i * stride, stride);
+        }
+    }
+
+    @Override
+    public void normalize() {
+        for (int i = 0; i < n; i++) {
+            int offset = i * stride;
+            double diag = data[offset + i];
+            for (int j = 0; j < n; j++) {
+                data[offset + j] = -data[offset + j] / diag;
+            }
+            data[offset + i] = 0;
+            data[offset + n] /= diag;
+        }
+    }
+
+    @Override
+    public double rowDot(int i, double[] x) {
+        int offset = i * stride;
+        double sum = 0;
+        for (int j = 0; j < n; j++) {
+            sum += data[offset + j] * x[j];
+        }
+        return sum;
+    }
+
+    @Override
+    public int dominanceCandidates(int i, int[] out) {
+        int count = 0;
+        double sum = rowAbsSum(i);
+        int offset = i * stride;
+        for (int j = 0; j < n; j++) {
+            if (sum - 2 * Math.abs(data[offset + j]) <= 0) out[count++] = j;
+        }
+        return count;
+    }
+}
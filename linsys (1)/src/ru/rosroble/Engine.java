@@ -0,0 +1,11 @@
+package ru.rosroble;
+
+// способ решения системы: итерационный метод, LU-разложение или автоматический выбор
+enum Engine {
+    ITERATIVE, DIRECT, AUTO;
+
+    // наибольшее число итераций итерационного метода
+    public static final int MAX_ITERATION = 1000000;
+    // прямой метод хранит плотную матрицу n x n, поэтому для больших систем не применяется
+    public static final int DIRECT_LIMIT = 20000;
+}
@@ -0,0 +1,136 @@
+package ru.rosroble;
+
+import java.util.Arrays;
+
+// алгоритм Хопкрофта-Карпа для поиска максимального паросочетания в двудольном графе строки - столбцы;
+// ребро (i, j) есть, если элемент a_ij может стоять на диагонали с преобладанием.
+// используется для достижения диагонального преобладания в матрице.
+// граф хранится в примитивных массивах смежности, поиск увеличивающих путей выполняется без рекурсии,
+// а вместо очистки массивов на каждой фазе используются метки фаз
+class HopcroftKarp {
+    private final int n;
+    // столбцы, смежные строке i, лежат в adj на позициях [adjStart[i], adjStart[i + 1])
+    private final int[] adjStart;
+    private int[] adj;
+    private final int[] matchRow;
+    private final int[] matchCol;
+    private final int[] dist;
+    private final int[] distStamp;
+    private final int[] edgeIt;
+    private final int[] queue;
+    private final int[] stack;
+    private int phase;
+    private long elapsedNanos;
+
+    public HopcroftKarp(LinearSystem matrix) {
+        long start = System.nanoTime();
+        n = matrix.size();
+        adjStart = new int[n + 1];
+        adj = new int[Math.max(16, 2 * n)];
+        int[] buffer = new int[n];
+        for (int i = 0; i < n; i++) {
+            int count = matrix.dominanceCandidates(i, buffer);
+            if (adjStart[i] + count > adj.length) {
+                adj = Arrays.copyOf(adj, Math.max(adj.length * 2, adjStart[i] + count));
+            }
+            System.arraycopy(buffer, 0, adj, adjStart[i], count);
+            adjStart[i + 1] = adjStart[i] + count;
+        }
+        matchRow = new int[n];
+        matchCol = new int[n];
+        dist = new int[n];
+        distStamp = new int[n];
+        edgeIt = new int[n];
+        queue = new int[n];
+        stack = new int[n];
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    // время построения графа и поиска паросочетания
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // возвращает перестановку строк (новая строка i - старая строка order[i]),
+    // дающую диагональное преобладание, или null, если такой перестановки нет; матрица не изменяется
+    public int[] diagDominance() {
+        long start = System.nanoTime();
+        Arrays.fill(matchRow, -1);
+        Arrays.fill(matchCol, -1);
+        int matched = 0;
+        while (bfs()) {
+            for (int v = 0; v < n; v++) {
+                edgeIt[v] = adjStart[v];
+            }
+            for (int v = 0; v < n; v++) {
+                if (matchRow[v] == -1 && augment(v)) matched++;
+            }
+        }
+        elapsedNanos += System.nanoTime() - start;
+        return matched == n ? matchCol : null;
+    }
+
+    private boolean layered(int v) {
+        return distStamp[v] == phase;
+    }
+
+    // разбивает строки на слои по расстоянию от свободных строк; true, если найден свободный столбец
+    private boolean bfs() {
+        phase++;
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (matchRow[v] == -1) {
+                dist[v] = 0;
+                distStamp[v] = phase;
+                queue[tail++] = v;
+            }
+        }
+        boolean found = false;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int p = adjStart[v]; p < adjStart[v + 1]; p++) {
+                int w = matchCol[adj[p]];
+                if (w == -1) {
+                    found = true;
+                } else if (!layered(w)) {
+                    dist[w] = dist[v] + 1;
+                    distStamp[w] = phase;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return found;
+    }
+
+    // поиск увеличивающего пути из свободной строки root по слоям с явным стеком;
+    // столбец, через который строка на стеке перешла дальше, - adj[edgeIt[v] - 1]
+    private boolean augment(int root) {
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int v = stack[top - 1];
+            if (edgeIt[v] == adjStart[v + 1]) {
+                // тупик: строка исключается из слоев до следующей фазы
+                distStamp[v] = phase - 1;
+                top--;
+                continue;
+            }
+            int col = adj[edgeIt[v]++];
+            int w = matchCol[col];
+            if (w == -1) {
+                for (int k = top - 1; k >= 0; k--) {
+                    int u = stack[k];
+                    int c = adj[edgeIt[u] - 1];
+                    matchCol[c] = u;
+                    matchRow[u] = c;
+                }
+                return true;
+            }
+            if (layered(w) && dist[w] == dist[v] + 1) {
+                stack[top++] = w;
+            }
+        }
+        return false;
+    }
+}
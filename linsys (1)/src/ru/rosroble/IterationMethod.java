@@ -0,0 +1,15 @@
+package ru.rosroble;
+
+// стратегия одной итерации для системы, приведенной к виду x = Cx + d
+interface IterationMethod {
+
+    // вызывается один раз после нормализации системы, до первой итерации
+    default void prepare(LinearSystem system) {
+    }
+
+    // выполняет итерацию x = Cx + d от приближения current, записывая новое приближение в next
+    // и покомпонентную погрешность в error; возвращает максимальную погрешность
+    double sweep(LinearSystem system, double[] d, double[] current, double[] next, double[] error);
+
+    String name();
+}
@@ -0,0 +1,46 @@
+package ru.rosroble;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// метод простых итераций (Якоби)
+class JacobiMethod implements IterationMethod {
+    // минимальное число строк, обрабатываемых одной задачей в параллельном режиме
+    public static final int PARALLEL_BLOCK = 512;
+    private final boolean parallel;
+
+    public JacobiMethod(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    @Override
+    public double sweep(LinearSystem system, double[] d, double[] current, double[] next, double[] error) {
+        if (!parallel) return sweep(system, d, 0, current.length, current, next, error);
+        // строки независимы, поэтому блоки строк обрабатываются в общем ForkJoinPool,
+        // а максимальная погрешность собирается редукцией без блокировок
+        int n = current.length;
+        int blockSize = Math.max(PARALLEL_BLOCK, n / (ForkJoinPool.getCommonPoolParallelism() * 4) + 1);
+        int blocks = (n + blockSize - 1) / blockSize;
+        return IntStream.range(0, blocks).parallel()
+                .mapToDouble(b -> sweep(system, d, b * blockSize, Math.min(n, (b + 1) * blockSize), current, next, error))
+                .max()
+                .orElse(0);
+    }
+
+    // итерация для строк [from, to); возвращает максимальную погрешность на этих строках
+    private double sweep(LinearSystem system, double[] d, int from, int to, double[] current, double[] next, double[] error) {
+        double maxEps = 0;
+        for (int i = from; i < to; i++) {
+            double newValue = system.rowDot(i, current) + d[i];
+            error[i] = Math.abs(newValue - current[i]);
+            if (error[i] > maxEps) maxEps = error[i];
+            next[i] = newValue;
+        }
+        return maxEps;
+    }
+
+    @Override
+    public String name() {
+        return parallel ? "метод простых итераций (параллельный)" : "метод простых итераций";
+    }
+}
@@ -0,0 +1,164 @@
+package ru.rosroble;
+
+import java.util.stream.IntStream;
+
+// LU-разложение PA = LU с частичным выбором ведущего элемента по столбцу
+// множители L (с единичной диагональю) и U хранятся в одном массиве на месте исходной матрицы;
+// разложение блочное: после факторизации панели из BLOCK столбцов оставшаяся часть матрицы
+// обновляется плитками, которые помещаются в кэш, группы строк обрабатываются параллельно
+class LUDecomposition {
+    public static final int BLOCK = 64;
+    public static final int TILE = 256;
+    // начиная с такого размера обновление оставшейся части матрицы выполняется параллельно
+    public static final int PARALLEL_THRESHOLD = 512;
+    private final int n;
+    private final double[] lu;
+    private final int[] pivot;
+    private final double[] rowBuffer;
+
+    private LUDecomposition(int n, double[] lu) {
+        this.n = n;
+        this.lu = lu;
+        this.pivot = new int[n];
+        this.rowBuffer = new double[n];
+        for (int i = 0; i < n; i++) pivot[i] = i;
+    }
+
+    // раскладывает матрицу коэффициентов системы (свободные члены не копируются)
+    public static LUDecomposition of(LinearSystem system) {
+        int n = system.size();
+        double[] a = new double[n * n];
+        if (system instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) system;
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(dense.data(), i * dense.stride(), a, i * n, n);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    a[i * n + j] = system.get(i, j);
+                }
+            }
+        }
+        LUDecomposition decomposition = new LUDecomposition(n, a);
+        decomposition.factor();
+        return decomposition;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    private void factor() {
+        for (int k0 = 0; k0 < n; k0 += BLOCK) {
+            int k1 = Math.min(n, k0 + BLOCK);
+            factorPanel(k0, k1);
+            if (k1 == n) break;
+            solveUpperBlock(k0, k1);
+            updateTrailing(k0, k1);
+        }
+    }
+
+    // разложение столбцов [k0, k1) с перестановкой строк целиком
+    private void factorPanel(int k0, int k1) {
+        for (int k = k0; k < k1; k++) {
+            int p = k;
+            double max = Math.abs(lu[k * n + k]);
+            for (int i = k + 1; i < n; i++) {
+                double value = Math.abs(lu[i * n + k]);
+                if (value > max) {
+                    max = value;
+                    p = i;
+                }
+            }
+            if (max == 0) throw new ArithmeticException("Матрица системы вырождена");
+            if (p != k) swapRows(p, k);
+            double diag = lu[k * n + k];
+            for (int i = k + 1; i < n; i++) {
+                int row = i * n;
+                double l = lu[row + k] / diag;
+                lu[row + k] = l;
+                for (int j = k + 1; j < k1; j++) {
+                    lu[row + j] -= l * lu[k * n + j];
+                }
+            }
+        }
+    }
+
+    private void swapRows(int p, int k) {
+        System.arraycopy(lu, p * n, rowBuffer, 0, n);
+        System.arraycopy(lu, k * n, lu, p * n, n);
+        System.arraycopy(rowBuffer, 0, lu, k * n, n);
+        int t = pivot[p];
+        pivot[p] = pivot[k];
+        pivot[k] = t;
+    }
+
+    // U12 = L11^-1 * A12 для строк панели
+    private void solveUpperBlock(int k0, int k1) {
+        for (int k = k0; k < k1; k++) {
+            for (int i = k + 1; i < k1; i++) {
+                double l = lu[i * n + k];
+                if (l == 0) continue;
+                for (int j = k1; j < n; j++) {
+                    lu[i * n + j] -= l * lu[k * n + j];
+                }
+            }
+        }
+    }
+
+    // A22 -= L21 * U12; строки разбиты на группы по BLOCK, внутри группы плитка U12 размером BLOCK x TILE
+    // используется всеми строками группы, пока находится в кэше
+    private void updateTrailing(int k0, int k1) {
+        int groups = (n - k1 + BLOCK - 1) / BLOCK;
+        IntStream range = IntStream.range(0, groups);
+        if (n - k1 >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(g -> {
+            int i0 = k1 + g * BLOCK;
+            int i1 = Math.min(n, i0 + BLOCK);
+            for (int j0 = k1; j0 < n; j0 += TILE) {
+                int j1 = Math.min(n, j0 + TILE);
+                for (int i = i0; i < i1; i++) {
+                    int row = i * n;
+                    for (int k = k0; k < k1; k++) {
+                        double l = lu[row + k];
+                        if (l == 0) continue;
+                        int upper = k * n;
+                        for (int j = j0; j < j1; j++) {
+                            lu[row + j] -= l * lu[upper + j];
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    // решает Ax = b; b не изменяется
+    public double[] solve(double[] b) {
+        double[] x = new double[n];
+        solve(b, x);
+        return x;
+    }
+
+    public void solve(double[] b, double[] x) {
+        for (int i = 0; i < n; i++) {
+            x[i] = b[pivot[i]];
+        }
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            double sum = x[i];
+            for (int j = 0; j < i; j++) {
+                sum -= lu[row + j] * x[j];
+            }
+            x[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            double sum = x[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= lu[row + j] * x[j];
+            }
+            x[i] = sum / lu[row + i];
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.rosroble;
+
+// общий интерфейс расширенной матрицы системы для итерационных методов
+interface LinearSystem {
+
+    int size();
+
+    double get(int i, int j);
+
+    double rhs(int i);
+
+    // число хранимых коэффициентов (без свободных членов)
+    long nonZeros();
+
+    // сумма модулей коэффициентов строки без свободного члена
+    double rowAbsSum(int i);
+
+    // переставляет строки так, что новая строка i - это старая строка order[i]
+    void permuteRows(int[] order);
+
+    // приводит систему к виду x = Cx + d, пригодному для метода простых итераций
+    void normalize();
+
+    // скалярное произведение строки i нормализованной матрицы на вектор x (без свободного члена)
+    double rowDot(int i, double[] x);
+
+    // записывает в out столбцы, которые может занять строка i так, чтобы элемент на диагонали преобладал;
+    // возвращает их количество
+    int dominanceCandidates(int i, int[] out);
+}
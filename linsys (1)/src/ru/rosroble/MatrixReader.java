@@ -0,0 +1,292 @@
+package ru.rosroble;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// потоковое чтение текстового файла системы без создания промежуточных строк:
+// файл отображается в память окнами по WINDOW байт, числа разбираются прямо из байтов
+class MatrixReader implements AutoCloseable {
+    public static final long WINDOW = 1L << 28;
+    // степени десяти, точно представимые в double
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer buffer;
+    private long windowStart;
+
+    // читает файл системы в двоичном (см. BinaryMatrixFormat) или текстовом формате:
+    // погрешность, затем n (или n и число ненулевых элементов для координатного формата), затем матрица
+    public static BinaryMatrixFormat.Loaded load(Path path) throws IOException {
+        if (BinaryMatrixFormat.isBinary(path)) return BinaryMatrixFormat.read(path);
+        try (MatrixReader in = new MatrixReader(path)) {
+            double eps = in.nextDouble();
+            int n = in.nextInt();
+            int nonZeros = in.hasMoreOnLine() ? in.nextInt() : 0;
+            return new BinaryMatrixFormat.Loaded(eps, nonZeros > 0 ? in.readSparse(n, nonZeros) : in.readDense(n));
+        }
+    }
+
+    public MatrixReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileSize = channel.size();
+        map(0);
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, fileSize - start));
+    }
+
+    // следующий байт файла или -1 в конце файла
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining()) {
+            long next = windowStart + buffer.limit();
+            if (next >= fileSize) return -1;
+            map(next);
+        }
+        return buffer.get(buffer.position());
+    }
+
+    private long position() {
+        return windowStart + buffer.position();
+    }
+
+    // текст числа от позиции start до текущей; нужен только для редких чисел, которые разбирает Double.parseDouble
+    private String token(long start) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) (position() - start));
+        channel.read(bytes, start);
+        return new String(bytes.array(), 0, bytes.position(), StandardCharsets.US_ASCII);
+    }
+
+    private void skip() {
+        buffer.position(buffer.position() + 1);
+    }
+
+    private void skipSpaces() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            skip();
+            c = peek();
+        }
+    }
+
+    // true, если в текущей строке есть еще числа
+    public boolean hasMoreOnLine() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r') {
+            skip();
+            c = peek();
+        }
+        return c != '\n' && c != -1;
+    }
+
+    public int nextInt() throws IOException {
+        skipSpaces();
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            skip();
+            c = peek();
+        }
+        if (c < '0' || c > '9') throw new NumberFormatException("Ожидалось целое число");
+        int value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            skip();
+            c = peek();
+        }
+        return negative ? -value : value;
+    }
+
+    // числа с не более чем 19 значащими цифрами переводятся без строк (см. toDouble),
+    // остальные и неоднозначные случаи разбираются через Double.parseDouble
+    public double nextDouble() throws IOException {
+        skipSpaces();
+        long start = position();
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            skip();
+            c = peek();
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        while (c >= '0' && c <= '9') {
+            any = true;
+            if (mantissa != 0 || c != '0') {
+                if (digits < 19) mantissa = mantissa * 10 + (c - '0');
+                else exponent++;
+                digits++;
+            }
+            skip();
+            c = peek();
+        }
+        if (c == '.') {
+            skip();
+            c = peek();
+            while (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa != 0 || c != '0') {
+                    if (digits < 19) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        exponent--;
+                    }
+                    digits++;
+                } else {
+                    exponent--;
+                }
+                skip();
+                c = peek();
+            }
+        }
+        if (c == 'e' || c == 'E') {
+            skip();
+            exponent += nextInt();
+        } else if (!any) {
+            // Infinity, NaN и прочие формы, которые понимает Double.parseDouble
+            while (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                skip();
+                c = peek();
+            }
+            return Double.parseDouble(token(start));
+        }
+        double value = digits > 19 ? Double.NaN : toDouble(mantissa, exponent, negative);
+        return Double.isNaN(value) ? Double.parseDouble(token(start)) : value;
+    }
+
+    // правильно округленное значение mantissa * 10^exponent (mantissa - беззнаковое) или NaN,
+    // если быстрые алгоритмы не могут гарантировать точность. Если мантисса и степень десяти точно
+    // представимы в double, хватает одной операции; иначе используется алгоритм Эйзеля-Лемира
+    static double toDouble(long mantissa, int exponent, boolean negative) {
+        if (mantissa == 0) return negative ? -0.0 : 0.0;
+        if (mantissa > 0 && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POW10[exponent] : mantissa / POW10[-exponent];
+            return negative ? -value : value;
+        }
+        if (exponent < PowersOfFive.MIN_EXPONENT || exponent > PowersOfFive.MAX_EXPONENT) return Double.NaN;
+        int clz = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << clz;
+        long retExp2 = (217706L * exponent >> 16) + 64 + 1023 - clz;
+        int index = 2 * (exponent - PowersOfFive.MIN_EXPONENT);
+        long powHi = PowersOfFive.TABLE[index];
+        long powLo = PowersOfFive.TABLE[index + 1];
+        long xHi = multiplyHighUnsigned(man, powHi);
+        long xLo = man * powHi;
+        if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + man, man) < 0) {
+            long yHi = multiplyHighUnsigned(man, powLo);
+            long yLo = man * powLo;
+            long mergedHi = xHi;
+            long mergedLo = xLo + yHi;
+            if (Long.compareUnsigned(mergedLo, xLo) < 0) mergedHi++;
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && Long.compareUnsigned(yLo + man, man) < 0) {
+                return Double.NaN;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+        long msb = xHi >>> 63;
+        long retMantissa = xHi >>> (msb + 9);
+        retExp2 -= 1 ^ msb;
+        if (xLo == 0 && (xHi & 0x1FF) == 0 && (retMantissa & 3) == 1) return Double.NaN;
+        retMantissa += retMantissa & 1;
+        retMantissa >>>= 1;
+        if (retMantissa >>> 53 > 0) {
+            retMantissa >>>= 1;
+            retExp2++;
+        }
+        // денормализованные числа, переполнение и бесконечность оставлены Double.parseDouble
+        if (retExp2 <= 0 || retExp2 >= 0x7FF) return Double.NaN;
+        long bits = retExp2 << 52 | retMantissa & 0x000FFFFFFFFFFFFFL;
+        if (negative) bits |= 0x8000000000000000L;
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    // 128-битные нормализованные мантиссы степеней 5^q (совпадают с мантиссами 10^q) для алгоритма
+    // Эйзеля-Лемира: для q >= 0 усечены, для q < 0 округлены вверх; хранятся парами (старшие, младшие биты)
+    private static class PowersOfFive {
+        static final int MIN_EXPONENT = -342;
+        static final int MAX_EXPONENT = 308;
+        static final long[] TABLE = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+
+        static {
+            BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+                BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q));
+                BigInteger value;
+                if (q >= 0) {
+                    int shift = power.bitLength() - 128;
+                    value = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+                } else {
+                    int z = power.bitLength();
+                    int b = q >= -27 ? z + 127 : 2 * z + 128;
+                    value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                    while (value.bitLength() > 128) value = value.shiftRight(1);
+                }
+                int index = 2 * (q - MIN_EXPONENT);
+                TABLE[index] = value.shiftRight(64).longValue();
+                TABLE[index + 1] = value.and(mask).longValue();
+            }
+        }
+    }
+
+    public DenseMatrix readDense(int n) throws IOException {
+        DenseMatrix matrix = new DenseMatrix(n);
+        double[] data = matrix.data();
+        for (int k = 0; k < data.length; k++) {
+            data[k] = nextDouble();
+        }
+        return matrix;
+    }
+
+    // координатный формат: nonZeros троек "i j a_ij" с нумерацией с единицы;
+    // свободный член строки i задается как элемент столбца n + 1
+    public SparseMatrix readSparse(int n, int nonZeros) throws IOException {
+        int[] rows = new int[nonZeros];
+        int[] cols = new int[nonZeros];
+        double[] vals = new double[nonZeros];
+        double[] rhs = new double[n];
+        int count = 0;
+        for (int k = 0; k < nonZeros; k++) {
+            int i = nextInt() - 1;
+            int j = nextInt() - 1;
+            double value = nextDouble();
+            if (j == n) {
+                rhs[i] = value;
+                continue;
+            }
+            rows[count] = i;
+            cols[count] = j;
+            vals[count] = value;
+            count++;
+        }
+        if (count < nonZeros) {
+            rows = Arrays.copyOf(rows, count);
+            cols = Arrays.copyOf(cols, count);
+            vals = Arrays.copyOf(vals, count);
+        }
+        return SparseMatrix.fromCoordinates(n, rows, cols, vals, rhs);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,154 @@
+package ru.rosroble;
+
+import java.util.stream.IntStream;
+
+// подготовленная система для многократного решения с разными векторами свободных членов:
+// перестановка строк и нормализованная матрица (или LU-разложение) вычисляются один раз
+class PreparedSystem {
+    private final int n;
+    private final IterationMethod method;
+    private final double eps;
+    // новая строка i - исходная строка order[i]; null, если строки не переставлялись
+    private final int[] order;
+    // нормализованная матрица и исходные диагональные элементы для итерационного метода
+    private final LinearSystem normalized;
+    private final double[] diag;
+    private final LUDecomposition lu;
+
+    private PreparedSystem(int n, IterationMethod method, double eps, int[] order,
+                           LinearSystem normalized, double[] diag, LUDecomposition lu) {
+        this.n = n;
+        this.method = method;
+        this.eps = eps;
+        this.order = order;
+        this.normalized = normalized;
+        this.diag = diag;
+        this.lu = lu;
+    }
+
+    public static PreparedSystem prepare(LinearSystem system, IterationMethod method, double eps) {
+        return prepare(system, method, eps, Engine.ITERATIVE);
+    }
+
+    // переставляет строки для диагонального преобладания и нормализует систему;
+    // если преобладания достичь нельзя, используется LU-разложение. Матрица system изменяется
+    public static PreparedSystem prepare(LinearSystem system, IterationMethod method, double eps,
+                                         Engine engine) {
+        if (engine == Engine.DIRECT) return direct(system);
+        int[] order = new HopcroftKarp(system).diagDominance();
+        if (order == null) {
+            if (system.size() > Engine.DIRECT_LIMIT) {
+                throw new ArithmeticException("Нельзя достигнуть диагонального преобладания");
+            }
+            return direct(system);
+        }
+        system.permuteRows(order);
+        if (engine == Engine.AUTO && directIsCheaper(system, eps)) {
+            return new PreparedSystem(system.size(), null, 0, order, null, null, LUDecomposition.of(system));
+        }
+        return iterative(system, order, method, eps);
+    }
+
+    // сравнивает оценку числа операций LU-разложения (2/3 n^3) и итерационного метода
+    // (число итераций * число ненулевых элементов) для системы с уже переставленными строками;
+    // скорость сходимости оценивается по запасу диагонального преобладания
+    // q = max(sum |a_ij| / |a_ii|), j != i: погрешность убывает не медленнее q^k
+    public static boolean directIsCheaper(LinearSystem system, double eps) {
+        int n = system.size();
+        if (n > Engine.DIRECT_LIMIT) return false;
+        double q = 0;
+        for (int i = 0; i < n; i++) {
+            double diag = Math.abs(system.get(i, i));
+            q = Math.max(q, (system.rowAbsSum(i) - diag) / diag);
+        }
+        double directCost = 2.0 / 3 * n * (double) n * n;
+        if (q >= 1) return true;
+        double iterations = q == 0 ? 1 : Math.ceil(Math.log(eps) / Math.log(q)) + 1;
+        return directCost < iterations * system.nonZeros();
+    }
+
+    // system - матрица, строки которой уже переставлены в соответствии с order
+    public static PreparedSystem iterative(LinearSystem system, int[] order, IterationMethod method, double eps) {
+        int n = system.size();
+        double[] diag = new double[n];
+        for (int i = 0; i < n; i++) {
+            diag[i] = system.get(i, i);
+        }
+        system.normalize();
+        method.prepare(system);
+        return new PreparedSystem(n, method, eps, order, system, diag, null);
+    }
+
+    public static PreparedSystem direct(LinearSystem system) {
+        return new PreparedSystem(system.size(), null, 0, null, null, null, LUDecomposition.of(system));
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isDirect() {
+        return lu != null;
+    }
+
+    // столбец d системы x = Cx + d для вектора свободных членов b в исходном порядке строк
+    public double[] constants(double[] b) {
+        double[] d = new double[n];
+        for (int i = 0; i < n; i++) {
+            d[i] = b[order == null ? i : order[i]] / diag[i];
+        }
+        return d;
+    }
+
+    public ConvergenceMonitor iterate(double[] d, double[] solution, double[] error) {
+        ConvergenceMonitor monitor = new ConvergenceMonitor(eps, Engine.MAX_ITERATION);
+        iterate(d, solution, error, monitor);
+        return monitor;
+    }
+
+    // итерирует от начального приближения solution, пока listener не прервет процесс
+    // (ConvergenceMonitor делает это по достижении точности eps или при расходимости);
+    // результат и покомпонентная погрешность записываются в solution и error, возвращается число итераций.
+    // два буфера решения меняются местами после каждой итерации, поэтому сама итерация не выделяет память
+    public int iterate(double[] d, double[] solution, double[] error, ConvergenceListener listener) {
+        int currentIter = 0;
+        double[] current = solution;
+        double[] next = new double[n];
+        boolean proceed = true;
+        while (proceed) {
+            double maxEps = method.sweep(normalized, d, current, next, error);
+            double[] tmp = current;
+            current = next;
+            next = tmp;
+            currentIter++;
+            proceed = listener.onIteration(currentIter, maxEps);
+        }
+        if (current != solution) System.arraycopy(current, 0, solution, 0, n);
+        return currentIter;
+    }
+
+    public double[] solve(double[] b) {
+        if (lu != null) {
+            if (order == null) return lu.solve(b);
+            double[] permuted = new double[n];
+            for (int i = 0; i < n; i++) {
+                permuted[i] = b[order[i]];
+            }
+            return lu.solve(permuted);
+        }
+        double[] d = constants(b);
+        double[] solution = d.clone();
+        ConvergenceMonitor monitor = iterate(d, solution, new double[n]);
+        if (monitor.getStatus() != ConvergenceMonitor.Status.CONVERGED) {
+            throw new ArithmeticException("Не удалось достичь требуемой сходимости. " + monitor);
+        }
+        return solution;
+    }
+
+    // решает систему для каждого вектора свободных членов rhs[k]; векторы обрабатываются параллельно
+    public double[][] solve(double[][] rhs) {
+        double[][] solutions = new double[rhs.length][];
+        IntStream.range(0, rhs.length).parallel().forEach(k -> solutions[k] = solve(rhs[k]));
+        return solutions;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.rosroble;
+
+// метод Гаусса-Зейделя (omega = 1) и метод последовательной верхней релаксации (SOR)
+// новые значения компонент используются сразу же в пределах той же итерации
+class RelaxationMethod implements IterationMethod {
+    // наибольшее и наименьшее число шагов степенного метода при автоматическом выборе omega
+    public static final int ESTIMATE_SWEEPS = 1000;
+    public static final int MIN_ESTIMATE_SWEEPS = 20;
+    // относительная точность оценки 1 - rho, от которой зависит omega
+    public static final double ESTIMATE_TOLERANCE = 1e-3;
+    private final boolean auto;
+    private double omega;
+
+    public RelaxationMethod(double omega) {
+        this.omega = omega;
+        this.auto = false;
+    }
+
+    // omega будет оценен по системе в prepare()
+    public RelaxationMethod() {
+        this.omega = 1;
+        this.auto = true;
+    }
+
+    public double getOmega() {
+        return omega;
+    }
+
+    @Override
+    public void prepare(LinearSystem system) {
+        if (auto) omega = estimateOmega(system);
+    }
+
+    @Override
+    public double sweep(LinearSystem system, double[] d, double[] current, double[] next, double[] error) {
+        System.arraycopy(current, 0, next, 0, current.length);
+        double maxEps = 0;
+        for (int i = 0; i < next.length; i++) {
+            double newValue = (1 - omega) * next[i] + omega * (system.rowDot(i, next) + d[i]);
+            error[i] = Math.abs(newValue - next[i]);
+            if (error[i] > maxEps) maxEps = error[i];
+            next[i] = newValue;
+        }
+        return maxEps;
+    }
+
+    // omega = 2 / (1 + sqrt(1 - rho^2)), где rho - спектральный радиус матрицы C метода Якоби,
+    // оцененный степенным методом: x(k + 1) = C x(k) / |C x(k)|. Собственные значения C часто идут парами +-rho,
+    // поэтому rho оценивается по двум шагам как sqrt(|C x(k)| * |C x(k - 1)|); итерации прекращаются,
+    // когда 1 - rho перестает меняться с относительной точностью ESTIMATE_TOLERANCE.
+    // Оценка приближается к rho снизу, то есть omega получается не больше оптимального
+    static double estimateOmega(LinearSystem system) {
+        int n = system.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        // псевдослучайный начальный вектор, чтобы не оказаться ортогональным собственному вектору
+        for (int i = 0; i < n; i++) {
+            x[i] = 1 + (i * 0.6180339887498949) % 1;
+        }
+        normalize(x);
+        double previousNorm = Double.NaN;
+        double rho = 0;
+        for (int k = 0; k < ESTIMATE_SWEEPS; k++) {
+            for (int i = 0; i < n; i++) {
+                y[i] = system.rowDot(i, x);
+            }
+            double norm = normalize(y);
+            if (norm == 0) return 1;
+            double[] tmp = x;
+            x = y;
+            y = tmp;
+            if (!Double.isNaN(previousNorm)) {
+                double next = Math.sqrt(norm * previousNorm);
+                boolean stable = Math.abs((1 - next) - (1 - rho)) < ESTIMATE_TOLERANCE * Math.abs(1 - next);
+                rho = next;
+                if (stable && k >= MIN_ESTIMATE_SWEEPS) break;
+            }
+            previousNorm = norm;
+        }
+        if (!(rho < 1)) return 1;
+        return 2 / (1 + Math.sqrt(1 - rho * rho));
+    }
+
+    // делит вектор на его евклидову норму и возвращает норму
+    private static double normalize(double[] x) {
+        double sum = 0;
+        for (double value : x) {
+            sum += value * value;
+        }
+        double norm = Math.sqrt(sum);
+        if (norm == 0) return 0;
+        for (int i = 0; i < x.length; i++) {
+            x[i] /= norm;
+        }
+        return norm;
+    }
+
+    @Override
+    public String name() {
+        if (omega == 1 && !auto) return "метод Гаусса-Зейделя";
+        return "метод верхней релаксации (omega = " + omega + ")";
+    }
+}
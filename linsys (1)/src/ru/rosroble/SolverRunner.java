@@ -1,51 +1,171 @@
 package ru.rosroble;
 
 import java.io.*;
-import java.sql.SQLOutput;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.List;
-import java.util.stream.IntStream;
 
 public class SolverRunner {
-    public static void main(String[] args) throws IOException {
-        Solver solver = new Solver();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // --batch=каталог|список решает системы без диалога; --threads=k задает размер пула,
+        // --output=файл - файл результатов (по умолчанию консоль), --no-solution не выводит векторы решений
+        String batch = option(args, "--batch=");
+        if (batch != null) {
+            String threads = option(args, "--threads=");
+            String output = option(args, "--output=");
+            PrintWriter out = output == null ?
+                    new PrintWriter(new OutputStreamWriter(System.out)) :
+                    new PrintWriter(Files.newBufferedWriter(Paths.get(output)));
+            new BatchRunner(() -> parseMethod(args), parseEngine(args),
+                    threads == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads),
+                    !Arrays.asList(args).contains("--no-solution"))
+                    .run(Paths.get(batch), out);
+            if (output != null) out.close();
+            return;
+        }
+        // --save-binary=путь сохраняет считанную систему в двоичном формате для быстрой загрузки,
+        // --trace выводит погрешность на каждой итерации
+        String binaryOutput = option(args, "--save-binary=");
+        Solver solver = new Solver(parseMethod(args), parseEngine(args),
+                binaryOutput == null ? null : Paths.get(binaryOutput),
+                Arrays.asList(args).contains("--trace"));
         solver.run();
     }
+
+    // значение аргумента вида prefix + значение или null, если аргумент не задан
+    static String option(String[] args, String prefix) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) return arg.substring(prefix.length());
+        }
+        return null;
+    }
+
+    // --engine=iterative|direct|auto выбирает итерационный метод, LU-разложение или автоматический выбор
+    static Engine parseEngine(String[] args) {
+        String engine = option(args, "--engine=");
+        return engine == null ? Engine.ITERATIVE : Engine.valueOf(engine.toUpperCase());
+    }
+
+    // --method=jacobi|seidel|sor выбирает итерационный метод, --omega=w задает параметр релаксации
+    // (без него omega оценивается автоматически), --parallel включает параллельный метод простых итераций
+    static IterationMethod parseMethod(String[] args) {
+        String method = "jacobi";
+        double omega = Double.NaN;
+        boolean parallel = false;
+        for (String arg : args) {
+            if (arg.startsWith("--method=")) method = arg.substring("--method=".length());
+            else if (arg.startsWith("--omega=")) omega = Double.parseDouble(arg.substring("--omega=".length()));
+            else if (arg.equals("--parallel")) parallel = true;
+        }
+        switch (method) {
+            case "jacobi":
+                return new JacobiMethod(parallel);
+            case "seidel":
+                return new RelaxationMethod(1);
+            case "sor":
+                return Double.isNaN(omega) ? new RelaxationMethod() : new RelaxationMethod(omega);
+            default:
+                throw new IllegalArgumentException("Неизвестный метод: " + method);
+        }
+    }
 }
 
 class Solver {
-    public static final int MAX_ITERATION = 1000000;
+    // матрицы большего размера не выводятся на экран
+    public static final int PRINT_LIMIT = 20;
+    private final IterationMethod method;
+    private final Engine engine;
+    private final Path binaryOutput;
+    private final boolean trace;
     private double eps;
     boolean isFile = false;
     private BufferedReader reader;
     private int n;
-    private double[][] matrix;
+    // число ненулевых элементов; больше нуля, если матрица задана в координатном формате
+    private int nonZeros;
+    private LinearSystem matrix;
     private double[] solution;
     private double[] error;
 
+    public Solver(IterationMethod method, Engine engine, Path binaryOutput, boolean trace) {
+        this.method = method;
+        this.engine = engine;
+        this.binaryOutput = binaryOutput;
+        this.trace = trace;
+    }
+
     public void run() throws IOException {
         init();
-        matrix = readMatrix(n);
+        if (matrix == null) matrix = nonZeros > 0 ? readSparseMatrix(n, nonZeros) : readMatrix(n);
+        if (binaryOutput != null) {
+            BinaryMatrixFormat.write(binaryOutput, eps, matrix);
+            System.out.println("Система сохранена в двоичном формате: " + binaryOutput);
+        }
         System.out.println("Считана матрица: ");
         printMatrix();
+        if (engine == Engine.DIRECT) {
+            solveDirect();
+            return;
+        }
         System.out.println("Попытка достичь диагонального преобладания.");
-        if (!new Kuhn().diagDominance()) {
-            System.out.println("Нельзя достигнуть диагонального преобладания. Завершение работы.");
+        HopcroftKarp matching = new HopcroftKarp(matrix);
+        int[] order = matching.diagDominance();
+        System.out.printf("Время поиска перестановки: %.3f мс%n", matching.getElapsedNanos() / 1e6);
+        if (order == null) {
+            if (matrix.size() > Engine.DIRECT_LIMIT) {
+                System.out.println("Нельзя достигнуть диагонального преобладания. Завершение работы.");
+                return;
+            }
+            System.out.println("Нельзя достигнуть диагонального преобладания. Используется прямой метод.");
+            solveDirect();
             return;
         }
+        matrix.permuteRows(order);
         System.out.println("Диагональное преобладание достигнуто. Модифицированная матрица: ");
         printMatrix();
-        modifyMatrix();
+        if (engine == Engine.AUTO && PreparedSystem.directIsCheaper(matrix, eps)) {
+            solveDirect();
+            return;
+        }
+        PreparedSystem prepared = PreparedSystem.iterative(matrix, order, method, eps);
+        System.out.println("Метод решения: " + method.name());
         solution = initSolution(matrix);
-        int iterations = iterate();
-        if (iterations == MAX_ITERATION) {
-            System.out.println("Не удалось достичь требуемой сходимости за допустимое число итераций.");
+        error = new double[solution.length];
+        ConvergenceListener trace = this.trace ?
+                (iteration, maxEps) -> {
+                    System.out.println("Итерация " + iteration + ": погрешность " + maxEps);
+                    return true;
+                } : null;
+        ConvergenceMonitor monitor = new ConvergenceMonitor(eps, Engine.MAX_ITERATION, trace);
+        prepared.iterate(solution.clone(), solution, error, monitor);
+        System.out.println(monitor);
+        if (monitor.getStatus() != ConvergenceMonitor.Status.CONVERGED) {
+            System.out.println("Не удалось достичь требуемой сходимости.");
             return;
         }
         System.out.println("Вектор решения: " + Arrays.toString(solution));
         System.out.println("Вектор погрешностей: " + Arrays.toString(error));
-        System.out.println("Количество итераций: " + iterations);
+        System.out.println("Количество итераций: " + monitor.getIterations());
+    }
+
+    private void solveDirect() {
+        System.out.println("Метод решения: LU-разложение с выбором ведущего элемента");
+        if (matrix.size() > Engine.DIRECT_LIMIT) {
+            System.out.println("Система слишком велика для прямого метода. Завершение работы.");
+            return;
+        }
+        double[] rhs = new double[matrix.size()];
+        for (int i = 0; i < rhs.length; i++) {
+            rhs[i] = matrix.rhs(i);
+        }
+        try {
+            solution = LUDecomposition.of(matrix).solve(rhs);
+        } catch (ArithmeticException e) {
+            System.out.println(e.getMessage() + ". Завершение работы.");
+            return;
+        }
+        System.out.println("Вектор решения: " + Arrays.toString(solution));
     }
 
     public void init() throws IOException {
@@ -53,141 +173,104 @@ class Solver {
         System.out.println("Введите имя файла или введите 0 чтобы считать с клавиатуры: ");
         String input = reader.readLine();
         if (!input.equals("0")) {
-            while (true) {
-                try {
-                    reader = new BufferedReader(new FileReader(input));
-                    isFile = true;
-                    break;
-                } catch (FileNotFoundException e) {
-                    System.out.println("Файл с указанным именем не найден. Повторите ввод.");
-                }
+            while (!Files.isRegularFile(Paths.get(input))) {
+                System.out.println("Файл с указанным именем не найден. Повторите ввод.");
+                input = reader.readLine();
             }
+            isFile = true;
+            readFile(Paths.get(input));
+            return;
         }
         printIfConsole("Введите погрешность: ");
         eps = Double.parseDouble(reader.readLine());
-        while (!((n > 0) && (n <= 20))) {
-            printIfConsole("Введите количество неизвестных системы (<= 20): ");
-            n = Integer.parseInt(reader.readLine());
+        while (n <= 0) {
+            printIfConsole("Введите количество неизвестных системы " +
+                    "(для разреженной матрицы - количество неизвестных и число ненулевых элементов через пробел): ");
+            String[] header = reader.readLine().trim().split(" +");
+            n = Integer.parseInt(header[0]);
+            if (header.length > 1) nonZeros = Integer.parseInt(header[1]);
         }
     }
 
+    // файлы читаются без BufferedReader: двоичный формат загружается массивами целиком,
+    // текстовый разбирается прямо из отображенного в память файла
+    private void readFile(Path path) throws IOException {
+        long start = System.nanoTime();
+        BinaryMatrixFormat.Loaded loaded = MatrixReader.load(path);
+        eps = loaded.eps;
+        matrix = loaded.system;
+        n = matrix.size();
+        System.out.printf("Время чтения файла: %.3f мс%n", (System.nanoTime() - start) / 1e6);
+    }
+
     private void printIfConsole(String msg) {
         if (!isFile) System.out.println(msg);
     }
 
-    private double[][] readMatrix(int n) throws IOException {
+    private DenseMatrix readMatrix(int n) throws IOException {
         printIfConsole("Введите матрицу: ");
-        double[][] matrix = new double[n][n + 1];
-        for (int i = 0; i < matrix.length; i++) {
+        DenseMatrix matrix = new DenseMatrix(n);
+        double[] data = matrix.data();
+        for (int i = 0; i < n; i++) {
             String[] line = reader.readLine().split(" ");
-            matrix[i] = Arrays.stream(line).
-                    mapToDouble(Double::parseDouble).
-                    toArray();
+            int offset = i * matrix.stride();
+            for (int j = 0; j < matrix.stride(); j++) {
+                data[offset + j] = Double.parseDouble(line[j]);
+            }
         }
 
         return matrix;
     }
 
-    private void printMatrix() {
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[0].length; j++) {
-                System.out.print(matrix[i][j] + " ");
+    // координатный формат: nonZeros строк вида "i j a_ij" с нумерацией с единицы;
+    // свободный член строки i задается как элемент столбца n + 1
+    private SparseMatrix readSparseMatrix(int n, int nonZeros) throws IOException {
+        printIfConsole("Введите ненулевые элементы расширенной матрицы (строка, столбец, значение): ");
+        int[] rows = new int[nonZeros];
+        int[] cols = new int[nonZeros];
+        double[] vals = new double[nonZeros];
+        double[] rhs = new double[n];
+        int count = 0;
+        for (int k = 0; k < nonZeros; k++) {
+            String[] line = reader.readLine().trim().split(" +");
+            int i = Integer.parseInt(line[0]) - 1;
+            int j = Integer.parseInt(line[1]) - 1;
+            double value = Double.parseDouble(line[2]);
+            if (j == n) {
+                rhs[i] = value;
+                continue;
             }
-            System.out.println();
-        }
-    }
-
-    private void modifyMatrix() {
-        for (int i = 0; i < matrix.length; i++) {
-            int currentIndex = i;
-            matrix[i] = Arrays.stream(matrix[i]).
-                    map(x -> -x / matrix[currentIndex][currentIndex]).
-                    toArray();
-            matrix[i][i] = 0;
-            matrix[i][n] *= -1;
+            rows[count] = i;
+            cols[count] = j;
+            vals[count] = value;
+            count++;
         }
+        return SparseMatrix.fromCoordinates(n,
+                Arrays.copyOf(rows, count),
+                Arrays.copyOf(cols, count),
+                Arrays.copyOf(vals, count),
+                rhs);
     }
 
-    private double[] initSolution(double[][] matrix) {
-        double[] solution = new double[matrix.length];
-        for (int i = 0; i < matrix.length; i++) {
-            solution[i] = matrix[i][matrix.length];
+    private void printMatrix() {
+        if (matrix.size() > PRINT_LIMIT) {
+            System.out.println("(матрица " + matrix.size() + "x" + (matrix.size() + 1) + " слишком велика для вывода)");
+            return;
         }
-        return solution;
-    }
-
-    private int iterate() {
-        int currentIter = 0;
-        double maxEps = Double.MAX_VALUE;
-        error = new double[solution.length];
-        while (currentIter < MAX_ITERATION && maxEps >= eps) {
-            double currentMaxEps = 0;
-            double[] currentSolution = Arrays.copyOf(solution, solution.length);
-            for (int i = 0; i < currentSolution.length; i++) {
-                double newValue = 0;
-                for (int j = 0; j < currentSolution.length; j++) {
-                    if (i == j) continue;
-                    newValue += matrix[i][j]*currentSolution[j];
-                }
-                newValue += matrix[i][matrix.length];
-                error[i] = Math.abs(newValue - solution[i]);
-                if (error[i] > currentMaxEps) currentMaxEps = error[i];
-                solution[i] = newValue;
+        for (int i = 0; i < matrix.size(); i++) {
+            for (int j = 0; j <= matrix.size(); j++) {
+                System.out.print(matrix.get(i, j) + " ");
             }
-            maxEps = currentMaxEps;
-            currentIter++;
+            System.out.println();
         }
-        return currentIter;
     }
 
-
-    // внутренний класс реализующий алгоритм Куна по нахождению максимального паросочетания в двудольном графе
-    // используется для достижения диагонального преобладания в матрице
-    private class Kuhn {
-
-        List<List<Integer>> g = new ArrayList<>();
-        int[] mt = new int[matrix.length];
-        boolean[] used = new boolean[matrix.length];
-
-        public boolean diagDominance() {
-            IntStream.range(0, mt.length).forEach(i -> mt[i] = -1);
-            for (int i = 0; i < matrix.length; i++) {
-                List<Integer> possibleIndexes = new ArrayList<>();
-                double sum = Arrays.stream(matrix[i]).map(Math::abs).sum() - Math.abs(matrix[i][matrix.length]);
-                for (int j = 0; j < matrix.length; j++) {
-                    if (sum - 2 * Math.abs(matrix[i][j]) <= 0) possibleIndexes.add(j);
-                }
-                g.add(possibleIndexes);
-            }
-
-            for (int v = 0; v < matrix.length; v++) {
-                IntStream.range(0, used.length).forEach(i -> used[i] = false);
-                tryKuhn(v);
-            }
-
-            double[][] matrixCopy = Arrays.copyOf(matrix, matrix.length);
-
-            for (int i = 0; i < matrix.length; i++) {
-                if (mt[i] == -1) {
-                    return false;
-                }
-                matrix[i] = matrixCopy[mt[i]];
-            }
-            return true;
-        }
-
-        private boolean tryKuhn(int v) {
-            if (used[v])  return false;
-            used[v] = true;
-            for (int i = 0; i < g.get(v).size(); ++i) {
-                int to = g.get(v).get(i);
-                if (mt[to] == -1 || tryKuhn(mt[to])) {
-                    mt[to] = v;
-                    return true;
-                }
-            }
-            return false;
+    private double[] initSolution(LinearSystem matrix) {
+        double[] solution = new double[matrix.size()];
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = matrix.rhs(i);
         }
+        return solution;
     }
 
 }
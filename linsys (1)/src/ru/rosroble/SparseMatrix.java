@@ -0,0 +1,161 @@
+package ru.rosroble;
+
+// разреженная матрица системы в формате CSR (compressed sparse row)
+// ненулевые элементы строки i лежат в colIdx/values на позициях [rowPtr[i], rowPtr[i + 1]),
+// внутри строки отсортированы по номеру столбца; свободные члены хранятся отдельно
+class SparseMatrix implements LinearSystem {
+    private final int n;
+    private int[] rowPtr;
+    private int[] colIdx;
+    private double[] values;
+    private double[] rhs;
+
+    public SparseMatrix(int n, int[] rowPtr, int[] colIdx, double[] values, double[] rhs) {
+        this.n = n;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+        this.rhs = rhs;
+    }
+
+    // строит матрицу из элементов в координатном формате (строка, столбец, значение), индексы с нуля
+    public static SparseMatrix fromCoordinates(int n, int[] rows, int[] cols, double[] vals, double[] rhs) {
+        int nnz = rows.length;
+        int[] rowPtr = new int[n + 1];
+        for (int k = 0; k < nnz; k++) {
+            rowPtr[rows[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            rowPtr[i + 1] += rowPtr[i];
+        }
+        int[] colIdx = new int[nnz];
+        double[] values = new double[nnz];
+        int[] fill = new int[n];
+        for (int k = 0; k < nnz; k++) {
+            int pos = rowPtr[rows[k]] + fill[rows[k]]++;
+            colIdx[pos] = cols[k];
+            values[pos] = vals[k];
+        }
+        // строки обычно короткие, поэтому достаточно сортировки вставками
+        for (int i = 0; i < n; i++) {
+            for (int p = rowPtr[i] + 1; p < rowPtr[i + 1]; p++) {
+                int col = colIdx[p];
+                double value = values[p];
+                int q = p - 1;
+                while (q >= rowPtr[i] && colIdx[q] > col) {
+                    colIdx[q + 1] = colIdx[q];
+                    values[q + 1] = values[q];
+                    q--;
+                }
+                colIdx[q + 1] = col;
+                values[q + 1] = value;
+            }
+        }
+        return new SparseMatrix(n, rowPtr, colIdx, values, rhs);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    public int[] rowPtr() {
+        return rowPtr;
+    }
+
+    public int[] colIdx() {
+        return colIdx;
+    }
+
+    public double[] values() {
+        return values;
+    }
+
+    public double[] rhs() {
+        return rhs;
+    }
+
+    @Override
+    public long nonZeros() {
+        return rowPtr[n];
+    }
+
+    @Override
+    public double rowAbsSum(int i) {
+        double sum = 0;
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            sum += Math.abs(values[p]);
+        }
+        return sum;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        if (j == n) return rhs[i];
+        int lo = rowPtr[i];
+        int hi = rowPtr[i + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (colIdx[mid] < j) lo = mid + 1;
+            else if (colIdx[mid] > j) hi = mid - 1;
+            else return values[mid];
+        }
+        return 0;
+    }
+
+    @Override
+    public double rhs(int i) {
+        return rhs[i];
+    }
+
+    @Override
+    public void permuteRows(int[] order) {
+        int[] newRowPtr = new int[n + 1];
+        int[] newColIdx = new int[colIdx.length];
+        double[] newValues = new double[values.length];
+        double[] newRhs = new double[n];
+        for (int i = 0; i < n; i++) {
+            int from = rowPtr[order[i]];
+            int length = rowPtr[order[i] + 1] - from;
+            System.arraycopy(colIdx, from, newColIdx, newRowPtr[i], length);
+            System.arraycopy(values, from, newValues, newRowPtr[i], length);
+            newRowPtr[i + 1] = newRowPtr[i] + length;
+            newRhs[i] = rhs[order[i]];
+        }
+        rowPtr = newRowPtr;
+        colIdx = newColIdx;
+        values = newValues;
+        rhs = newRhs;
+    }
+
+    @Override
+    public void normalize() {
+        for (int i = 0; i < n; i++) {
+            double diag = get(i, i);
+            for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+                values[p] = colIdx[p] == i ? 0 : -values[p] / diag;
+            }
+            rhs[i] /= diag;
+        }
+    }
+
+    @Override
+    public double rowDot(int i, double[] x) {
+        double sum = 0;
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            sum += values[p] * x[colIdx[p]];
+        }
+        return sum;
+    }
+
+    // нулевой элемент не может преобладать в строке, поэтому рассматриваются только хранимые столбцы
+    @Override
+    public int dominanceCandidates(int i, int[] out) {
+        int count = 0;
+        double sum = rowAbsSum(i);
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            if (sum - 2 * Math.abs(values[p]) <= 0) out[count++] = colIdx[p];
+        }
+        return count;
+    }
+}